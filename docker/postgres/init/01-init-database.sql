@@ -13,6 +13,9 @@ GRANT CONNECT ON DATABASE insurance_service TO insurance_app;
 -- Enable uuid-ossp extension for UUID generation
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
+-- Enable pg_trgm extension for trigram-indexed substring search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- Grant schema privileges on the insurance_service database
 GRANT USAGE ON SCHEMA public TO insurance_app;
 GRANT CREATE ON SCHEMA public TO insurance_app;
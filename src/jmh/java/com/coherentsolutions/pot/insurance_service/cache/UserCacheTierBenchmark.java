@@ -0,0 +1,124 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Compares a Caffeine cache holding every user on the heap against {@link OffHeapUserStore} with
+ * the same users, for reads and for a read-mostly mix. Run with {@code ./gradlew jmh}: besides the
+ * throughput, the gc profiler configured in build.gradle reports gc.count and gc.time per
+ * iteration, which is where a large on-heap live set shows up. There are more threads than
+ * off-heap segments, so readers contend on segment locks the way a busy service would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(32)
+public class UserCacheTierBenchmark {
+
+    public enum Tier {
+        ON_HEAP,
+        OFF_HEAP
+    }
+
+    @Param({"ON_HEAP", "OFF_HEAP"})
+    public Tier tier;
+
+    @Param("1000000")
+    public int users;
+
+    @Param("16")
+    public int segments;
+
+    private UUID[] ids;
+    private Cache<UUID, UserDto> onHeap;
+    private OffHeapUserStore offHeap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (tier == Tier.ON_HEAP) {
+            onHeap = Caffeine.newBuilder().maximumSize(users).build();
+        } else {
+            offHeap = new OffHeapUserStore((long) users * 512, segments, 1 << 20, Duration.ofHours(1));
+        }
+        ids = new UUID[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = UUID.randomUUID();
+            put(ids[i], user(i));
+        }
+    }
+
+    private static UserDto user(int i) {
+        return UserDto.builder()
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .username("user" + i)
+                .email("user" + i + "@example.com")
+                .dateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i % 10_000))
+                .ssn(String.format("%03d-%02d-%04d", i % 1000, i % 100, i % 10_000))
+                .addressData(List.of(new Address("USA", "Boston", "MA", "Main St", String.valueOf(i % 500), null)))
+                .phoneData(List.of(new Phone("+1", String.valueOf(5_550_000 + i % 10_000))))
+                .functions(EnumSet.of(UserFunction.CONSUMER))
+                .status(UserStatus.ACTIVE)
+                .companyId(new UUID(0, i % 1000))
+                .version((long) i)
+                .build();
+    }
+
+    private void put(UUID id, UserDto user) {
+        if (tier == Tier.ON_HEAP) {
+            onHeap.put(id, user);
+        } else {
+            offHeap.put(id, user);
+        }
+    }
+
+    private UserDto get(UUID id) {
+        return tier == Tier.ON_HEAP ? onHeap.getIfPresent(id) : offHeap.get(id);
+    }
+
+    @Benchmark
+    public UserDto read() {
+        return get(ids[ThreadLocalRandom.current().nextInt(users)]);
+    }
+
+    // One write in ten, as users are updated and read back
+    @Benchmark
+    public UserDto readMostly() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(users);
+        if (random.nextInt(10) == 0) {
+            put(ids[i], user(i));
+            return null;
+        }
+        return get(ids[i]);
+    }
+}
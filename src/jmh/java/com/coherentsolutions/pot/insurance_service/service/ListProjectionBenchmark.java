@@ -0,0 +1,118 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.coherentsolutions.pot.insurance_service.InsuranceServiceApplication;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.mapper.UserMapper;
+import com.coherentsolutions.pot.insurance_service.model.User;
+import com.coherentsolutions.pot.insurance_service.repository.UserRepository;
+import com.coherentsolutions.pot.insurance_service.repository.UserSpecification;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+
+/**
+ * Compares one page of the user list read through managed entities plus {@link UserMapper}
+ * against the DTO projection path, against a Postgres container. Run with {@code ./gradlew jmh};
+ * gc.alloc.rate.norm from the gc profiler is the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ListProjectionBenchmark {
+
+    private static final int USERS = 5_000;
+    private static final Pageable PAGE = PageRequest.of(0, 200, Sort.by("username"));
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private TransactionTemplate readOnly;
+    private Specification<User> specification;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16.9");
+        postgres.start();
+
+        SpringApplication application = new SpringApplication(InsuranceServiceApplication.class);
+        application.setDefaultProperties(Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl(),
+                "spring.datasource.username", postgres.getUsername(),
+                "spring.datasource.password", postgres.getPassword(),
+                "insurance.security.ssn-hmac-key", "benchmark-ssn-hmac-key",
+                "server.port", "0"));
+        context = application.run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UUID companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Acme', 'USA')", companyId);
+        jdbcTemplate.update("""
+                INSERT INTO users (first_name, last_name, username, email, date_of_birth, ssn, company_id,
+                                   address_data, phone_data)
+                SELECT 'First' || g, 'Last' || g, 'bench_user' || g, 'bench_user' || g || '@example.com',
+                       DATE '1990-01-01', 'B' || lpad(g::text, 9, '0'), ?,
+                       '[{"country": "USA", "city": "Austin", "street": "Main St"}]'::jsonb,
+                       '[{"code": "+1", "number": "555-0100"}]'::jsonb
+                FROM generate_series(1, ?) g
+                """, companyId, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO user_functions (id, function, user_id)
+                SELECT gen_random_uuid(), 'CONSUMER', id FROM users
+                """);
+
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        UserFilter filter = new UserFilter();
+        filter.setEmail("bench_user");
+        specification = UserSpecification.withFilters(filter, context.getBean(SsnBlindIndex.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<UserDto> entities() {
+        return readOnly.execute(status -> userRepository.findAll(specification, PAGE)
+                .map(userMapper::toDto)
+                .getContent());
+    }
+
+    @Benchmark
+    public List<UserDto> projection() {
+        return readOnly.execute(status -> userRepository.findDtoPage(specification, PAGE).getContent());
+    }
+}
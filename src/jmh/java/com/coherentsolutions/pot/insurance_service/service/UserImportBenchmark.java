@@ -0,0 +1,100 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.coherentsolutions.pot.insurance_service.InsuranceServiceApplication;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserImportReport;
+
+/**
+ * Imports {@value #ROWS} CSV rows per invocation into an emptied users table, against a Postgres
+ * container. Run with {@code ./gradlew jmh}; the score is the time per imported row, so anything
+ * under 20 us/op meets the 50k rows/sec target. The body is generated before each iteration, so
+ * only parsing, COPY, validation and the merge are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class UserImportBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UserImportService userImportService;
+    private UUID companyId;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16.9");
+        postgres.start();
+
+        SpringApplication application = new SpringApplication(InsuranceServiceApplication.class);
+        application.setDefaultProperties(Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl(),
+                "spring.datasource.username", postgres.getUsername(),
+                "spring.datasource.password", postgres.getPassword(),
+                "insurance.security.ssn-hmac-key", "benchmark-ssn-hmac-key",
+                "server.port", "0"));
+        context = application.run();
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userImportService = context.getBean(UserImportService.class);
+        companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Acme', 'USA')", companyId);
+    }
+
+    @Setup(Level.Iteration)
+    public void generateBody() {
+        jdbcTemplate.execute("TRUNCATE users CASCADE");
+        StringBuilder csv = new StringBuilder(ROWS * 128)
+                .append("firstName,lastName,username,email,dateOfBirth,ssn,companyId,functions\n");
+        for (int n = 1; n <= ROWS; n++) {
+            csv.append("First").append(n).append(",Last").append(n)
+                    .append(",import_user").append(n).append(",import_user").append(n).append("@example.com")
+                    .append(",1990-01-01,").append(String.format("%09d", n)).append(',').append(companyId)
+                    .append(n % 2 == 0 ? ",CONSUMER;COMPANY_MANAGER\n" : ",CONSUMER\n");
+        }
+        body = csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public UserImportReport importCsv() {
+        UserImportReport report = userImportService.importUsers(new ByteArrayInputStream(body), UserImportService.TEXT_CSV);
+        if (report.getImported() != ROWS) {
+            throw new IllegalStateException("Imported " + report.getImported() + " of " + ROWS + " rows");
+        }
+        return report;
+    }
+}
@@ -0,0 +1,222 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.postgresql.PGProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the local caches of every node consistent over Postgres LISTEN/NOTIFY, without an
+ * external broker. {@link #publish} evicts locally right away and queues a NOTIFY in the current
+ * transaction, which Postgres only delivers once that transaction commits, and drops if it rolls
+ * back. Each node holds one dedicated connection to the primary that LISTENs on the channel; when
+ * it breaks, notifications sent in the meantime are lost, so every cache is flushed as soon as the
+ * node is listening again.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+    static final String CHANNEL = "insurance_cache_invalidation";
+    static final String APPLICATION_NAME = "insurance-cache-listener";
+
+    private static final int POLL_TIMEOUT_MILLIS = 5_000;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<CacheInvalidationListener> listeners;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+
+    private final CompletableFuture<Void> listening = new CompletableFuture<>();
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                List<CacheInvalidationListener> listeners,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${insurance.cache.invalidation.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listeners = List.copyOf(listeners);
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Evicts {@code id} from this node's caches now and from every node's once the surrounding
+     * transaction commits; outside a transaction the notification is sent immediately.
+     */
+    public void publish(CacheRegion region, UUID id) {
+        dispatch(region, id);
+        if (enabled) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, region.name() + ":" + id);
+        }
+    }
+
+    /**
+     * Waits until this node receives invalidations from the others, i.e. until entries cached from
+     * now on are kept up to date. Returns {@code true} right away when the bus is disabled.
+     */
+    public boolean awaitListening(Duration timeout) {
+        if (!enabled) {
+            return true;
+        }
+        try {
+            listening.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void dispatch(CacheRegion region, UUID id) {
+        listeners.forEach(listener -> listener.invalidate(region, id));
+    }
+
+    private void flushAll() {
+        listeners.forEach(CacheInvalidationListener::invalidateAll);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeConnection();
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        Duration backoff = Duration.ofSeconds(1);
+        boolean listenedBefore = false;
+        while (running) {
+            try {
+                connection = connect();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything published while we were not listening is gone; start from empty caches
+                if (listenedBefore) {
+                    log.info("Cache invalidation listener reconnected, flushing local caches");
+                    flushAll();
+                }
+                listenedBefore = true;
+                listening.complete(null);
+                backoff = Duration.ofSeconds(1);
+                receive(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, retrying in {}", backoff, e);
+                // Whatever arrives before we listen again is missed, so stop trusting the caches now
+                flushAll();
+                closeConnection();
+                sleep(backoff);
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private void receive(PGConnection pgConnection) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications == null || notifications.length == 0) {
+                // A silently dropped socket only shows up when we talk to the server
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                handle(notification.getParameter());
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf(':');
+        try {
+            dispatch(CacheRegion.valueOf(payload.substring(0, separator)), UUID.fromString(payload.substring(separator + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            // Probably a newer node with a region we do not know; flushing is always safe
+            log.warn("Unrecognized cache invalidation '{}', flushing local caches", payload);
+            flushAll();
+        }
+    }
+
+    // A plain connection outside the pool: it is held for the node's lifetime and must reach the primary
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty(PGProperty.USER.getName(), dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty(PGProperty.PASSWORD.getName(), dataSourceProperties.determinePassword());
+        }
+        properties.setProperty(PGProperty.APPLICATION_NAME.getName(), APPLICATION_NAME);
+        properties.setProperty(PGProperty.TCP_KEEP_ALIVE.getName(), "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close cache invalidation connection", e);
+            }
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
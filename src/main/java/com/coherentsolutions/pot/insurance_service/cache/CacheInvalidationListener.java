@@ -0,0 +1,18 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.util.UUID;
+
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+
+/**
+ * A local cache that {@link CacheInvalidationBus} keeps consistent with writes made on any node.
+ */
+public interface CacheInvalidationListener {
+
+    void invalidate(CacheRegion region, UUID id);
+
+    /**
+     * Called when invalidations may have been missed, e.g. after the listen connection dropped.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,75 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Picks the transaction a cache miss loads in. Misses read a replica like any other read-only
+ * work, except for keys written within the last {@code window}: a replica may not have replayed
+ * that write yet, and loading from it would put the old value back right after its invalidation.
+ * The window must cover the lag a replica can have while it still receives reads.
+ *
+ * <p>Both transactions are new ones, so a miss neither joins a caller's replica transaction nor
+ * caches uncommitted writes of a caller's read-write one.
+ */
+final class CacheLoadTransactions {
+    private final TransactionTemplate primary;
+    private final TransactionTemplate replica;
+    private final Cache<Object, Boolean> recentWrites;
+    private final long windowNanos;
+    // Until then every miss reads the primary, since writes may have gone unnoticed
+    private volatile long everythingWrittenUntil;
+
+    CacheLoadTransactions(PlatformTransactionManager transactionManager, Duration window) {
+        this.primary = new TransactionTemplate(transactionManager);
+        this.primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.replica = new TransactionTemplate(transactionManager);
+        this.replica.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.replica.setReadOnly(true);
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+        this.windowNanos = window.toNanos();
+        this.everythingWrittenUntil = System.nanoTime();
+    }
+
+    /**
+     * Sends misses for {@code key} to the primary for the next window. Called on every
+     * invalidation, local or remote, and again when a local write commits.
+     */
+    void written(Object key) {
+        recentWrites.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Sends all misses to the primary for the next window, e.g. when invalidations may have been
+     * missed and any key could have been written.
+     */
+    void writtenAll() {
+        everythingWrittenUntil = System.nanoTime() + windowNanos;
+    }
+
+    <T> T load(Object key, Supplier<T> loader) {
+        return transactionFor(recentlyWritten(key)).execute(status -> loader.get());
+    }
+
+    <T> T loadAll(Collection<?> keys, Supplier<T> loader) {
+        return transactionFor(keys.stream().anyMatch(this::recentlyWritten)).execute(status -> loader.get());
+    }
+
+    private boolean recentlyWritten(Object key) {
+        return System.nanoTime() - everythingWrittenUntil < 0 || recentWrites.getIfPresent(key) != null;
+    }
+
+    private TransactionTemplate transactionFor(boolean recentlyWritten) {
+        return recentlyWritten ? primary : replica;
+    }
+}
@@ -0,0 +1,276 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.mapper.UserMapper;
+import com.coherentsolutions.pot.insurance_service.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carries the company and user caches over a restart. On shutdown the cached companies and the ids
+ * of the cached users are written to a file; on startup, before the application reports itself
+ * ready, the file is memory-mapped, its companies are cached again and its users are reloaded from
+ * the primary. User DTOs hold personal data such as SSNs, so none of it is ever written to disk.
+ * Each entry is then checked against the version of its row, and entries that are outdated or whose
+ * row is gone are dropped. Validating after caching leaves no gap: an update committed before the
+ * check is seen by it, one committed later evicts the entry through the invalidation bus, which is
+ * why restoring waits until the bus is listening.
+ *
+ * <p>Layout: magic and format version, then a sequence of company entries, each marked by a 1 byte
+ * and holding the id, the version and the length-prefixed Smile encoding of the DTO, ended by a 0
+ * byte, then the user ids in the same way. Entries are streamed out of the caches, so no count is
+ * known upfront. The file is only readable by its owner where the file system supports it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "insurance.cache.snapshot.enabled", havingValue = "true")
+public class CacheSnapshot implements ApplicationRunner, DisposableBean {
+    private static final int MAGIC = 0x49435348;
+    // Bump whenever the layout changes; DTO changes are absorbed by the lenient mapper
+    private static final int FORMAT_VERSION = 3;
+    private static final int VALIDATION_BATCH_SIZE = 1000;
+    private static final Duration LISTEN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final CompanyCache companyCache;
+    private final UserCache userCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final TransactionTemplate primaryTransaction;
+    private final ObjectMapper smileMapper;
+    private final Path path;
+
+    public CacheSnapshot(CompanyCache companyCache,
+                         UserCache userCache,
+                         CacheInvalidationBus cacheInvalidationBus,
+                         JdbcTemplate jdbcTemplate,
+                         UserRepository userRepository,
+                         UserMapper userMapper,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${insurance.cache.snapshot.path:}") String path) {
+        if (path.isBlank()) {
+            throw new IllegalStateException("insurance.cache.snapshot.path (CACHE_SNAPSHOT_PATH) must be set "
+                    + "when the cache snapshot is enabled");
+        }
+        this.companyCache = companyCache;
+        this.userCache = userCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        // Reloaded users are read from the primary: writes made while this node was down are unknown
+        // to it, so a replica could hand back rows older than the ones it last cached
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!cacheInvalidationBus.awaitListening(LISTEN_TIMEOUT)) {
+            log.warn("Not restoring the cache snapshot: cache invalidations are not being received yet");
+            return;
+        }
+        restore(path);
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            write(path);
+        } catch (IOException e) {
+            log.warn("Failed to write the cache snapshot to {}", path, e);
+        }
+    }
+
+    void write(Path target) throws IOException {
+        Path partial = target.resolveSibling("." + target.getFileName() + ".tmp");
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        createOwnerOnly(partial);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            int companies = writeSection(out, companyCache.entries()::forEach, CompanyDto::getVersion);
+            int users = writeIds(out, userCache::forEachEntry);
+            log.info("Wrote {} companies and {} users to the cache snapshot", companies, users);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(partial);
+            throw e.getCause();
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void createOwnerOnly(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+    }
+
+    private <T> int writeSection(DataOutputStream out, Consumer<BiConsumer<UUID, T>> entries,
+                                 Function<T, Long> version) throws IOException {
+        AtomicInteger written = new AtomicInteger();
+        entries.accept((id, value) -> {
+            Long entryVersion = version.apply(value);
+            if (entryVersion == null) {
+                return;
+            }
+            try {
+                byte[] payload = smileMapper.writeValueAsBytes(value);
+                out.writeBoolean(true);
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+                out.writeLong(entryVersion);
+                out.writeInt(payload.length);
+                out.write(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written.incrementAndGet();
+        });
+        out.writeBoolean(false);
+        return written.get();
+    }
+
+    private <T> int writeIds(DataOutputStream out, Consumer<BiConsumer<UUID, T>> entries) throws IOException {
+        AtomicInteger written = new AtomicInteger();
+        entries.accept((id, value) -> {
+            try {
+                out.writeBoolean(true);
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written.incrementAndGet();
+        });
+        out.writeBoolean(false);
+        return written.get();
+    }
+
+    void restore(Path source) {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.warn("Ignoring cache snapshot {} written in an unknown format", source);
+                return;
+            }
+            int companies = restoreSection(buffer, "companies", CompanyDto.class,
+                    companyCache::putIfAbsent, companyCache::invalidate);
+            int users = reloadUsers(buffer);
+            log.info("Restored {} companies and {} users from the cache snapshot", companies, users);
+        } catch (NoSuchFileException e) {
+            log.info("No cache snapshot at {}, starting with empty caches", source);
+        } catch (IOException | RuntimeException e) {
+            // Entries may have been cached without being validated
+            log.warn("Failed to restore the cache snapshot from {}, starting with empty caches", source, e);
+            companyCache.invalidateAll();
+            userCache.invalidateAll();
+        }
+    }
+
+    private <T> int restoreSection(ByteBuffer buffer, String table, Class<T> type,
+                                   BiConsumer<UUID, T> cache, Consumer<UUID> evict) throws IOException {
+        Map<UUID, Long> versions = new HashMap<>();
+        while (buffer.get() != 0) {
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            long version = buffer.getLong();
+            int length = buffer.getInt();
+            // Decoded straight from the mapping, without copying the payload onto the heap first
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            cache.accept(id, smileMapper.readValue(new ByteBufferBackedInputStream(payload), type));
+            versions.put(id, version);
+        }
+        return versions.size() - dropOutdated(table, versions, evict);
+    }
+
+    private int reloadUsers(ByteBuffer buffer) {
+        List<UUID> ids = new ArrayList<>();
+        while (buffer.get() != 0) {
+            ids.add(new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        int restored = 0;
+        for (int from = 0; from < ids.size(); from += VALIDATION_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(ids.size(), from + VALIDATION_BATCH_SIZE));
+            List<UserDto> users = primaryTransaction.execute(status -> userRepository.findWithFunctionsByIdIn(batch)
+                    .stream()
+                    .map(userMapper::toDto)
+                    .toList());
+            // Cached before validating, as for companies, so an update racing the reload is not missed
+            Map<UUID, Long> versions = new HashMap<>();
+            for (UserDto user : users) {
+                userCache.putIfAbsent(user.getId(), user);
+                versions.put(user.getId(), user.getVersion());
+            }
+            restored += versions.size() - dropOutdated("users", versions, userCache::invalidate);
+        }
+        return restored;
+    }
+
+    private int dropOutdated(String table, Map<UUID, Long> versions, Consumer<UUID> evict) {
+        Map<UUID, Long> current = new HashMap<>(versions.size() * 2);
+        List<UUID> ids = List.copyOf(versions.keySet());
+        for (int from = 0; from < ids.size(); from += VALIDATION_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(ids.size(), from + VALIDATION_BATCH_SIZE));
+            jdbcTemplate.query("SELECT id, version FROM " + table + " WHERE id = ANY(?)",
+                    statement -> statement.setArray(1, statement.getConnection().createArrayOf("uuid", batch.toArray())),
+                    row -> {
+                        current.put(row.getObject("id", UUID.class), row.getLong("version"));
+                    });
+        }
+        int outdated = 0;
+        for (Map.Entry<UUID, Long> entry : versions.entrySet()) {
+            if (!entry.getValue().equals(current.get(entry.getKey()))) {
+                evict.accept(entry.getKey());
+                outdated++;
+            }
+        }
+        return outdated;
+    }
+}
@@ -0,0 +1,133 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-process cache of company DTOs by id. Misses are loaded once per key no matter how
+ * many requests ask for it concurrently, unknown ids are remembered for a shorter time so repeated
+ * 404s do not reach the database, and size-based eviction uses Caffeine's W-TinyLFU policy.
+ * Cached DTOs are shared between callers and must be treated as read-only.
+ *
+ * <p>Loaders run in a new read-only transaction on a replica, except for ids written within the
+ * primary read window, which are loaded from the primary; see {@link CacheLoadTransactions}.
+ */
+@Component
+public class CompanyCache implements CacheInvalidationListener, MeterBinder {
+    private static final String NAME = "companies";
+
+    private final Cache<UUID, Optional<CompanyDto>> cache;
+    private final CacheLoadTransactions loadTransactions;
+
+    public CompanyCache(PlatformTransactionManager transactionManager,
+                        @Value("${insurance.cache.primary-read-window:PT10S}") Duration primaryReadWindow,
+                        @Value("${insurance.cache.companies.maximum-size:10000}") long maximumSize,
+                        @Value("${insurance.cache.companies.ttl:PT10M}") Duration ttl,
+                        @Value("${insurance.cache.companies.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<UUID, Optional<CompanyDto>>creating(
+                        (id, company) -> company.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+        this.loadTransactions = new CacheLoadTransactions(transactionManager, primaryReadWindow);
+    }
+
+    /**
+     * Returns the cached company, calling {@code loader} on a miss; an empty result is cached too.
+     */
+    public Optional<CompanyDto> get(UUID id, Function<UUID, Optional<CompanyDto>> loader) {
+        return cache.get(id, key -> loadTransactions.load(key, () -> loader.apply(key)));
+    }
+
+    /**
+     * Returns the companies that exist among {@code ids}, loading all misses with one
+     * {@code loader} call. Ids the loader does not return are cached as absent.
+     */
+    public Map<UUID, CompanyDto> getAll(Collection<UUID> ids,
+                                        Function<Set<UUID>, Map<UUID, CompanyDto>> loader) {
+        Map<UUID, Optional<CompanyDto>> companies = cache.getAll(ids, missing -> {
+            Map<UUID, CompanyDto> loaded = loadTransactions.loadAll(missing, () -> loader.apply(Set.copyOf(missing)));
+            return missing.stream().collect(Collectors.toMap(
+                    Function.identity(), id -> Optional.ofNullable(loaded.get(id))));
+        });
+        Map<UUID, CompanyDto> present = new HashMap<>();
+        companies.forEach((id, company) -> company.ifPresent(dto -> present.put(id, dto)));
+        return present;
+    }
+
+    /**
+     * The companies currently cached, e.g. for a snapshot; ids cached as unknown are left out.
+     */
+    public Map<UUID, CompanyDto> entries() {
+        Map<UUID, CompanyDto> entries = new HashMap<>();
+        cache.asMap().forEach((id, company) -> company.ifPresent(dto -> entries.put(id, dto)));
+        return entries;
+    }
+
+    /**
+     * Caches {@code company} unless its id is cached already, in which case that entry is newer.
+     */
+    public void putIfAbsent(UUID id, CompanyDto company) {
+        cache.asMap().putIfAbsent(id, Optional.of(company));
+    }
+
+    /**
+     * Drops the entry now and, inside a transaction, again once it commits, so a concurrent miss
+     * cannot re-cache the row as it was before the write.
+     */
+    public void invalidate(UUID id) {
+        loadTransactions.written(id);
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    loadTransactions.written(id);
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, UUID id) {
+        if (region == CacheRegion.COMPANY) {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        loadTransactions.writtenAll();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+}
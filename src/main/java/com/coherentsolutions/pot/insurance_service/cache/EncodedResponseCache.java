@@ -0,0 +1,181 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.util.ETags;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps the JSON encoding of single resources, and a gzipped copy of larger ones, for the version
+ * they were encoded from. A hit hands the stored bytes to the byte array converter, which copies
+ * them to the response as they are, so serving an unchanged resource costs no serialization. The
+ * ETag hashes those bytes, so it only matches a representation the client actually received.
+ */
+@Component
+public class EncodedResponseCache implements CacheInvalidationListener, MeterBinder {
+    private static final String NAME = "responses";
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final long gzipMinSize;
+    private final Cache<Key, EncodedResponse> cache;
+
+    public EncodedResponseCache(ObjectMapper objectMapper,
+                                @Value("${insurance.cache.responses.maximum-weight:64MB}") DataSize maximumWeight,
+                                @Value("${insurance.cache.responses.gzip:true}") boolean gzip,
+                                @Value("${insurance.cache.responses.gzip-min-size:1KB}") DataSize gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.gzipMinSize = gzipMinSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((Key key, EncodedResponse response) -> response.weight())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the encoding of {@code body}, the representation of resource {@code id} at
+     * {@code version}, serializing it only if that version is not cached yet. Hits are lock-free
+     * reads; only a missing or outdated entry is replaced, atomically per resource.
+     */
+    public EncodedResponse get(CacheRegion region, UUID id, long version, Object body) {
+        Key key = new Key(region, id);
+        EncodedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+        return cache.asMap().compute(key, (ignored, current) ->
+                current != null && current.version() == version ? current : encode(version, body));
+    }
+
+    private EncodedResponse encode(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzipped = gzip && json.length >= gzipMinSize ? gzip(json) : null;
+            return new EncodedResponse(version, ETags.of(version, json), json, gzipped);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode " + body.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        // Compressed once per version, so spend the time on the smallest output
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, UUID id) {
+        cache.invalidate(new Key(region, id));
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    private record Key(CacheRegion region, UUID id) {
+    }
+
+    /**
+     * @param gzipped the gzip encoding of {@code json}, or {@code null} when it is not worth it
+     */
+    public record EncodedResponse(long version, String eTag, byte[] json, byte[] gzipped) {
+        private static final String GZIP_SUFFIX = "-gzip\"";
+
+        int weight() {
+            return json.length + (gzipped == null ? 0 : gzipped.length);
+        }
+
+        private boolean sendsGzip(String acceptEncoding) {
+            return gzipped != null && acceptsGzip(acceptEncoding);
+        }
+
+        /**
+         * The tag of the representation sent for {@code acceptEncoding}; a gzipped body is a
+         * different representation and so has a tag of its own.
+         */
+        public String eTag(String acceptEncoding) {
+            return sendsGzip(acceptEncoding) ? eTag.substring(0, eTag.length() - 1) + GZIP_SUFFIX : eTag;
+        }
+
+        /**
+         * A 200 response with the pre-encoded body, gzipped if the client accepts it.
+         */
+        public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(eTag(acceptEncoding));
+            if (gzipped == null) {
+                return response.body(json);
+            }
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            return sendsGzip(acceptEncoding)
+                    ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipped)
+                    : response.body(json);
+        }
+
+        // An explicit gzip entry takes precedence over "*" wherever it appears (RFC 9110, 12.5.3)
+        private static boolean acceptsGzip(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            Boolean wildcard = null;
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (name.equalsIgnoreCase("gzip")) {
+                    return acceptable(parts);
+                }
+                if (name.equals("*")) {
+                    wildcard = acceptable(parts);
+                }
+            }
+            return Boolean.TRUE.equals(wildcard);
+        }
+
+        private static boolean acceptable(String[] parts) {
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().matches("[qQ]\\s*=\\s*0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
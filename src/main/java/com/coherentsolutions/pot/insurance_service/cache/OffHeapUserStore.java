@@ -0,0 +1,390 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+
+/**
+ * User DTOs kept outside the Java heap, encoded with {@link UserDtoCodec}, so millions of them
+ * neither add to the live set the collector traces nor get copied between generations.
+ *
+ * <p>Memory is organised like memcached's slab allocator. The store is split into segments by id,
+ * each with its own lock and its share of the capacity. A segment allocates direct pages on demand
+ * and carves each page into equal slots of one size class (128 bytes, doubling up to the page
+ * size); a record takes a slot of the smallest class it fits. The only per-entry heap state is
+ * the segment index from id to page and offset, kept in access order: when a class has no free
+ * slot and no page is left, its least recently used entry gives up its slot. Pages stay with the
+ * class they were first given to until {@link #clear()}. SSNs are stored encrypted under a key
+ * that only lives on the heap of this store.
+ */
+public class OffHeapUserStore {
+    static final int MIN_SLOT_SIZE = 128;
+    // Each slot starts with the record length and its expiry on the System.nanoTime() clock
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final SsnCipher ssnCipher = new SsnCipher();
+
+    /**
+     * @param capacity  bytes of direct memory to use at most, which counts against
+     *                  {@code -XX:MaxDirectMemorySize}; at least one page
+     * @param segments  number of independently locked segments, lowered to the number of pages
+     *                  the capacity holds so that every segment gets one
+     * @param pageSize  power of two, at least {@value #MIN_SLOT_SIZE}; also the largest record stored
+     * @param ttl       how long a record is served after it was stored
+     */
+    public OffHeapUserStore(long capacity, int segments, int pageSize, Duration ttl) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("segments must be positive: " + segments);
+        }
+        if (pageSize < MIN_SLOT_SIZE || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("pageSize must be a power of two of at least " + MIN_SLOT_SIZE + ": " + pageSize);
+        }
+        if (capacity < pageSize) {
+            throw new IllegalArgumentException("capacity must hold at least one page of " + pageSize + " bytes: " + capacity);
+        }
+        int segmentCount = (int) Math.min(segments, capacity / pageSize);
+        int pagesPerSegment = Math.toIntExact(capacity / pageSize / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(pagesPerSegment, pageSize);
+        }
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the stored user, or null when it is not stored or has expired.
+     */
+    public UserDto get(UUID id) {
+        // Decoded, and its SSN decrypted, after the segment lock is released
+        byte[] record = segmentFor(id).get(id, System.nanoTime());
+        return record == null ? null : UserDtoCodec.decode(id, ByteBuffer.wrap(record), ssnCipher);
+    }
+
+    /**
+     * Stores {@code user}, replacing any record of the same id. Returns false when it is not
+     * stored, because it is larger than a page or its size class has no memory.
+     */
+    public boolean put(UUID id, UserDto user) {
+        return put(id, user, false);
+    }
+
+    /**
+     * Stores {@code user} unless a record of the same id is stored already. Returns false only when
+     * it could not be stored, like {@link #put(UUID, UserDto)}.
+     */
+    public boolean putIfAbsent(UUID id, UserDto user) {
+        return put(id, user, true);
+    }
+
+    private boolean put(UUID id, UserDto user, boolean onlyIfAbsent) {
+        // Encoded outside the segment lock
+        byte[] record = UserDtoCodec.encode(user, ssnCipher);
+        long now = System.nanoTime();
+        return segmentFor(id).put(id, record, now, now + ttlNanos, onlyIfAbsent);
+    }
+
+    public void remove(UUID id) {
+        segmentFor(id).remove(id);
+    }
+
+    /**
+     * Drops every record; pages are kept and handed out again.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Calls {@code action} for each unexpired record. A segment's records are copied under its
+     * lock, then decoded and handed to {@code action} after the lock is released, so neither
+     * decoding nor a slow action holds up readers and writers.
+     */
+    public void forEach(BiConsumer<UUID, UserDto> action) {
+        long now = System.nanoTime();
+        for (Segment segment : segments) {
+            for (Map.Entry<UUID, byte[]> entry : segment.entries(now)) {
+                action.accept(entry.getKey(), UserDtoCodec.decode(entry.getKey(), ByteBuffer.wrap(entry.getValue()), ssnCipher));
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long allocatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.allocatedBytes();
+        }
+        return bytes;
+    }
+
+    public long hitCount() {
+        long hits = 0;
+        for (Segment segment : segments) {
+            hits += segment.hits;
+        }
+        return hits;
+    }
+
+    public long missCount() {
+        long misses = 0;
+        for (Segment segment : segments) {
+            misses += segment.misses;
+        }
+        return misses;
+    }
+
+    public long evictionCount() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            evictions += segment.evictions;
+        }
+        return evictions;
+    }
+
+    private Segment segmentFor(UUID id) {
+        int hash = id.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    private static final class Segment {
+        private final int pageSize;
+        private final ByteBuffer[] pages;
+        // Size class of each allocated page
+        private final byte[] pageClasses;
+        private int allocatedPages;
+        // Allocated pages released by clear() and not yet given to a class again
+        private final int[] freePages;
+        private int freePageCount;
+        private final SlotStack[] freeSlots;
+        private final int[] classEntries;
+        // Access-ordered, so iteration starts at the least recently used entry
+        private final LinkedHashMap<UUID, Long> index = new LinkedHashMap<>(1024, 0.75f, true);
+
+        // Written under the segment lock and read racily by the metrics
+        private volatile long hits;
+        private volatile long misses;
+        private volatile long evictions;
+
+        Segment(int maxPages, int pageSize) {
+            this.pageSize = pageSize;
+            this.pages = new ByteBuffer[maxPages];
+            this.pageClasses = new byte[maxPages];
+            this.freePages = new int[maxPages];
+            int classes = Integer.numberOfTrailingZeros(pageSize) - Integer.numberOfTrailingZeros(MIN_SLOT_SIZE) + 1;
+            this.freeSlots = new SlotStack[classes];
+            for (int i = 0; i < classes; i++) {
+                freeSlots[i] = new SlotStack();
+            }
+            this.classEntries = new int[classes];
+        }
+
+        synchronized byte[] get(UUID id, long now) {
+            Long location = index.get(id);
+            if (location == null) {
+                misses++;
+                return null;
+            }
+            ByteBuffer page = pages[page(location)];
+            int offset = offset(location);
+            if (page.getLong(offset + Integer.BYTES) - now < 0) {
+                index.remove(id);
+                release(location);
+                misses++;
+                return null;
+            }
+            hits++;
+            return copy(page, offset);
+        }
+
+        synchronized boolean put(UUID id, byte[] record, long now, long expiresAt, boolean onlyIfAbsent) {
+            Long existing = index.get(id);
+            if (existing != null) {
+                if (onlyIfAbsent && pages[page(existing)].getLong(offset(existing) + Integer.BYTES) - now >= 0) {
+                    return true;
+                }
+                index.remove(id);
+                release(existing);
+            }
+            int slotClass = slotClass(HEADER_SIZE + record.length);
+            if (slotClass < 0) {
+                return false;
+            }
+            long location = acquire(slotClass);
+            if (location < 0) {
+                return false;
+            }
+            ByteBuffer page = pages[page(location)];
+            int offset = offset(location);
+            page.putInt(offset, record.length);
+            page.putLong(offset + Integer.BYTES, expiresAt);
+            page.put(offset + HEADER_SIZE, record);
+            index.put(id, location);
+            classEntries[slotClass]++;
+            return true;
+        }
+
+        synchronized void remove(UUID id) {
+            Long location = index.remove(id);
+            if (location != null) {
+                release(location);
+            }
+        }
+
+        synchronized void clear() {
+            index.clear();
+            for (SlotStack slots : freeSlots) {
+                slots.clear();
+            }
+            Arrays.fill(classEntries, 0);
+            for (int page = 0; page < allocatedPages; page++) {
+                freePages[page] = page;
+            }
+            freePageCount = allocatedPages;
+        }
+
+        synchronized List<Map.Entry<UUID, byte[]>> entries(long now) {
+            List<Map.Entry<UUID, byte[]>> entries = new ArrayList<>(index.size());
+            // Iterating does not reorder the index, unlike get()
+            for (Map.Entry<UUID, Long> entry : index.entrySet()) {
+                ByteBuffer page = pages[page(entry.getValue())];
+                int offset = offset(entry.getValue());
+                if (page.getLong(offset + Integer.BYTES) - now >= 0) {
+                    entries.add(Map.entry(entry.getKey(), copy(page, offset)));
+                }
+            }
+            return entries;
+        }
+
+        synchronized int size() {
+            return index.size();
+        }
+
+        synchronized long allocatedBytes() {
+            return (long) allocatedPages * pageSize;
+        }
+
+        // Copied under the lock: once released, the slot may be overwritten by another record
+        private static byte[] copy(ByteBuffer page, int offset) {
+            byte[] record = new byte[page.getInt(offset)];
+            page.get(offset + HEADER_SIZE, record);
+            return record;
+        }
+
+        private int slotClass(int size) {
+            if (size > pageSize) {
+                return -1;
+            }
+            return Math.max(0, 32 - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MIN_SLOT_SIZE));
+        }
+
+        private long acquire(int slotClass) {
+            SlotStack slots = freeSlots[slotClass];
+            if (slots.isEmpty()) {
+                int page = newPage();
+                if (page >= 0) {
+                    pageClasses[page] = (byte) slotClass;
+                    int slotSize = MIN_SLOT_SIZE << slotClass;
+                    for (int offset = pageSize - slotSize; offset >= 0; offset -= slotSize) {
+                        slots.push(location(page, offset));
+                    }
+                } else if (!evictFrom(slotClass)) {
+                    return -1;
+                }
+            }
+            return slots.pop();
+        }
+
+        private int newPage() {
+            if (freePageCount > 0) {
+                return freePages[--freePageCount];
+            }
+            if (allocatedPages < pages.length) {
+                pages[allocatedPages] = ByteBuffer.allocateDirect(pageSize);
+                return allocatedPages++;
+            }
+            return -1;
+        }
+
+        // Most users fall into one or two classes, so the least recently used entry of the class
+        // is usually found among the first few in the index
+        private boolean evictFrom(int slotClass) {
+            if (classEntries[slotClass] == 0) {
+                return false;
+            }
+            Iterator<Long> locations = index.values().iterator();
+            while (locations.hasNext()) {
+                long location = locations.next();
+                if (pageClasses[page(location)] == slotClass) {
+                    locations.remove();
+                    release(location);
+                    evictions++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void release(long location) {
+            int slotClass = pageClasses[page(location)];
+            classEntries[slotClass]--;
+            freeSlots[slotClass].push(location);
+        }
+
+        private static long location(int page, int offset) {
+            return (long) page << 32 | offset;
+        }
+
+        private static int page(long location) {
+            return (int) (location >>> 32);
+        }
+
+        private static int offset(long location) {
+            return (int) location;
+        }
+    }
+
+    // Free slot locations without boxing them
+    private static final class SlotStack {
+        private long[] locations = new long[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long location) {
+            if (size == locations.length) {
+                locations = Arrays.copyOf(locations, size * 2);
+            }
+            locations[size++] = location;
+        }
+
+        long pop() {
+            return locations[--size];
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
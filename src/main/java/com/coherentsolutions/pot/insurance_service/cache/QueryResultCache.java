@@ -0,0 +1,104 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caches list query results by query and by the generation of the table they read. Every write to
+ * a region, on any node, bumps its generation, so later lookups miss and results of earlier
+ * generations are simply never read again until size-based eviction drops them. Queries must be
+ * normalized by the caller so that equivalent requests produce equal keys. Cached results are
+ * shared between callers and must be treated as read-only.
+ *
+ * <p>Misses read a replica, except within the primary read window after a write to their region:
+ * a replica that has not replayed the write yet would cache an old result under the generation
+ * that follows it. See {@link CacheLoadTransactions}.
+ */
+@Component
+public class QueryResultCache implements CacheInvalidationListener, MeterBinder {
+    private static final String NAME = "query-results";
+
+    private final Map<CacheRegion, AtomicLong> generations = new EnumMap<>(CacheRegion.class);
+    private final Cache<Key, Object> cache;
+    private final CacheLoadTransactions loadTransactions;
+
+    public QueryResultCache(PlatformTransactionManager transactionManager,
+                            @Value("${insurance.cache.primary-read-window:PT10S}") Duration primaryReadWindow,
+                            @Value("${insurance.cache.query-results.maximum-size:10000}") long maximumSize,
+                            @Value("${insurance.cache.query-results.ttl:PT10M}") Duration ttl) {
+        for (CacheRegion region : CacheRegion.values()) {
+            generations.put(region, new AtomicLong());
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.loadTransactions = new CacheLoadTransactions(transactionManager, primaryReadWindow);
+    }
+
+    /**
+     * Returns the cached result of {@code query} against the current generation of {@code region},
+     * running {@code loader} in a new transaction on a miss. Hits take no connection.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(CacheRegion region, Object query, Supplier<T> loader) {
+        // Read the generation before loading: a write committing meanwhile leaves the result under
+        // a generation nobody asks for anymore
+        Key key = new Key(region, generations.get(region).get(), query);
+        return (T) cache.get(key, ignored -> loadTransactions.load(region, loader));
+    }
+
+    /**
+     * Moves {@code region} to a new generation now and, inside a transaction, again once it
+     * commits, so results loaded before the write became visible are not served afterwards.
+     */
+    @Override
+    public void invalidate(CacheRegion region, UUID id) {
+        AtomicLong generation = generations.get(region);
+        loadTransactions.written(region);
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    loadTransactions.written(region);
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        loadTransactions.writtenAll();
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    private record Key(CacheRegion region, long generation, Object query) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.util.UUID;
+
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+import com.coherentsolutions.pot.insurance_service.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Evicts Hibernate's second-level cache on invalidations from other nodes, whose writes the local
+ * read-write regions never see. Assignments themselves are never updated in place, so dropping a
+ * user's function collection is enough for the next load to read the current ones.
+ */
+@Component
+public class SecondLevelCacheInvalidator implements CacheInvalidationListener {
+    private static final String USER_FUNCTIONS = User.class.getName() + ".functions";
+
+    private final Cache cache;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, UUID id) {
+        switch (region) {
+            case COMPANY -> cache.evictEntityData(Company.class, id);
+            case USER -> cache.evictCollectionData(USER_FUNCTIONS, id);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.evictAllRegions();
+    }
+}
@@ -0,0 +1,75 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Encrypts SSNs with AES-GCM under a key generated for this instance and never written anywhere,
+ * for records kept outside the heap. Direct memory is not cleared when a slot is released, so an
+ * SSN would otherwise linger there, and in native dumps, long after its user was evicted.
+ */
+final class SsnCipher {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int NONCE_SIZE = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKey key;
+    // Cipher instances are not thread-safe and costly to look up, so each thread keeps its own
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(SsnCipher::newCipher);
+    // GCM only needs nonces that never repeat under one key, which a counter guarantees
+    private final AtomicLong nonces = new AtomicLong();
+
+    SsnCipher() {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            this.key = generator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES is not available", e);
+        }
+    }
+
+    /**
+     * Returns the nonce followed by the ciphertext and tag of {@code ssn}.
+     */
+    byte[] seal(String ssn) {
+        byte[] plaintext = ssn.getBytes(StandardCharsets.UTF_8);
+        byte[] nonce = new byte[NONCE_SIZE];
+        ByteBuffer.wrap(nonce).putLong(NONCE_SIZE - Long.BYTES, nonces.incrementAndGet());
+        try {
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+            byte[] sealed = Arrays.copyOf(nonce, NONCE_SIZE + cipher.getOutputSize(plaintext.length));
+            cipher.doFinal(plaintext, 0, plaintext.length, sealed, NONCE_SIZE);
+            return sealed;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to encrypt SSN", e);
+        }
+    }
+
+    String open(byte[] sealed) {
+        try {
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, NONCE_SIZE));
+            return new String(cipher.doFinal(sealed, NONCE_SIZE, sealed.length - NONCE_SIZE), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to decrypt SSN", e);
+        }
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-process cache of user DTOs by id, loaded once per key like {@link CompanyCache}.
+ * Unknown ids are not remembered: users are also created in bulk, which does not publish
+ * invalidations. Cached DTOs are shared between callers and must be treated as read-only.
+ *
+ * <p>With an off-heap capacity configured, the Caffeine cache only holds the hot users and every
+ * loaded user is also written to an {@link OffHeapUserStore}, which a heap miss checks before
+ * calling the loader. A user found there is cached on the heap again with a fresh TTL, so it may be
+ * served for up to twice the TTL after it was loaded; invalidations reach both tiers.
+ *
+ * <p>Loaders read a replica unless the user was written recently, as in {@link CompanyCache}.
+ */
+@Component
+public class UserCache implements CacheInvalidationListener, MeterBinder {
+    private static final String NAME = "users";
+
+    private final Cache<UUID, UserDto> cache;
+    // Null when no off-heap capacity is configured
+    private final OffHeapUserStore offHeap;
+    private final CacheLoadTransactions loadTransactions;
+
+    public UserCache(PlatformTransactionManager transactionManager,
+                     @Value("${insurance.cache.primary-read-window:PT10S}") Duration primaryReadWindow,
+                     @Value("${insurance.cache.users.maximum-size:100000}") long maximumSize,
+                     @Value("${insurance.cache.users.ttl:PT10M}") Duration ttl,
+                     @Value("${insurance.cache.users.off-heap.capacity:0}") DataSize offHeapCapacity,
+                     @Value("${insurance.cache.users.off-heap.segments:16}") int offHeapSegments,
+                     @Value("${insurance.cache.users.off-heap.page-size:1MB}") DataSize offHeapPageSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.offHeap = offHeapCapacity.toBytes() > 0
+                ? new OffHeapUserStore(offHeapCapacity.toBytes(), offHeapSegments, Math.toIntExact(offHeapPageSize.toBytes()), ttl)
+                : null;
+        this.loadTransactions = new CacheLoadTransactions(transactionManager, primaryReadWindow);
+    }
+
+    /**
+     * Returns the cached user, calling {@code loader} on a miss.
+     */
+    public Optional<UserDto> get(UUID id, Function<UUID, Optional<UserDto>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> load(key, loader)));
+    }
+
+    private UserDto load(UUID id, Function<UUID, Optional<UserDto>> loader) {
+        if (offHeap == null) {
+            return loadFromDatabase(id, loader);
+        }
+        UserDto user = offHeap.get(id);
+        if (user == null) {
+            user = loadFromDatabase(id, loader);
+            if (user != null) {
+                offHeap.put(id, user);
+            }
+        }
+        return user;
+    }
+
+    private UserDto loadFromDatabase(UUID id, Function<UUID, Optional<UserDto>> loader) {
+        return loadTransactions.load(id, () -> loader.apply(id).orElse(null));
+    }
+
+    /**
+     * Calls {@code action} once for each user currently cached in either tier, e.g. for a snapshot,
+     * without copying the off-heap tier onto the heap.
+     */
+    public void forEachEntry(BiConsumer<UUID, UserDto> action) {
+        Set<UUID> visited = new HashSet<>();
+        cache.asMap().forEach((id, user) -> {
+            visited.add(id);
+            action.accept(id, user);
+        });
+        if (offHeap != null) {
+            offHeap.forEach((id, user) -> {
+                if (!visited.contains(id)) {
+                    action.accept(id, user);
+                }
+            });
+        }
+    }
+
+    /**
+     * Caches {@code user} unless its id is cached already, in which case that entry is newer. Goes
+     * to the off-heap tier when there is one, leaving the heap to the users actually read.
+     */
+    public void putIfAbsent(UUID id, UserDto user) {
+        if (offHeap == null || cache.getIfPresent(id) != null || !offHeap.putIfAbsent(id, user)) {
+            cache.asMap().putIfAbsent(id, user);
+        }
+    }
+
+    /**
+     * Drops the entry now and, inside a transaction, again once it commits, so a concurrent miss
+     * cannot re-cache the row as it was before the write.
+     */
+    public void invalidate(UUID id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    // Heap tier first: invalidating waits for a load of the same id in progress, which may still be
+    // writing the row it read to the off-heap tier
+    private void evict(UUID id) {
+        loadTransactions.written(id);
+        cache.invalidate(id);
+        if (offHeap != null) {
+            offHeap.remove(id);
+        }
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, UUID id) {
+        if (region == CacheRegion.USER) {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        loadTransactions.writtenAll();
+        cache.invalidateAll();
+        if (offHeap != null) {
+            offHeap.clear();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+        if (offHeap == null) {
+            return;
+        }
+        Gauge.builder("cache.off.heap.size", offHeap, OffHeapUserStore::size)
+                .tag("cache", NAME)
+                .description("Entries held in the off-heap tier")
+                .register(registry);
+        Gauge.builder("cache.off.heap.memory", offHeap, OffHeapUserStore::allocatedBytes)
+                .tag("cache", NAME)
+                .baseUnit("bytes")
+                .description("Direct memory allocated by the off-heap tier")
+                .register(registry);
+        FunctionCounter.builder("cache.off.heap.gets", offHeap, OffHeapUserStore::hitCount)
+                .tags("cache", NAME, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.off.heap.gets", offHeap, OffHeapUserStore::missCount)
+                .tags("cache", NAME, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.off.heap.evictions", offHeap, OffHeapUserStore::evictionCount)
+                .tag("cache", NAME)
+                .register(registry);
+    }
+}
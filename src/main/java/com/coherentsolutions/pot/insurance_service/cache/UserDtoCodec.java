@@ -0,0 +1,227 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
+
+/**
+ * Compact binary encoding of a cached {@link UserDto}. The id is the cache key and is not stored,
+ * and the embedded company is never cached. Layout: a flags byte marking which fixed-size fields
+ * are present, those fields (date of birth as epoch day, functions as the users.function_mask
+ * bits, status ordinal, company id, version), then the strings and the address and phone lists.
+ * Strings and lists are prefixed with their length plus one as a varint, so zero means null. The
+ * SSN is the one string stored sealed by an {@link SsnCipher} rather than as UTF-8.
+ */
+public final class UserDtoCodec {
+    private static final int DATE_OF_BIRTH = 1;
+    private static final int FUNCTIONS = 1 << 1;
+    private static final int STATUS = 1 << 2;
+    private static final int COMPANY_ID = 1 << 3;
+    private static final int VERSION = 1 << 4;
+
+    private UserDtoCodec() {
+
+    }
+
+    static byte[] encode(UserDto user, SsnCipher ssnCipher) {
+        Writer out = new Writer();
+        int flags = (user.getDateOfBirth() != null ? DATE_OF_BIRTH : 0)
+                | (user.getFunctions() != null ? FUNCTIONS : 0)
+                | (user.getStatus() != null ? STATUS : 0)
+                | (user.getCompanyId() != null ? COMPANY_ID : 0)
+                | (user.getVersion() != null ? VERSION : 0);
+        out.writeByte(flags);
+        if (user.getDateOfBirth() != null) {
+            out.writeInt((int) user.getDateOfBirth().toEpochDay());
+        }
+        if (user.getFunctions() != null) {
+            out.writeShort(UserFunctionMask.toMask(user.getFunctions()));
+        }
+        if (user.getStatus() != null) {
+            out.writeByte(user.getStatus().ordinal());
+        }
+        if (user.getCompanyId() != null) {
+            out.writeLong(user.getCompanyId().getMostSignificantBits());
+            out.writeLong(user.getCompanyId().getLeastSignificantBits());
+        }
+        if (user.getVersion() != null) {
+            out.writeLong(user.getVersion());
+        }
+        out.writeString(user.getFirstName());
+        out.writeString(user.getLastName());
+        out.writeString(user.getUsername());
+        out.writeString(user.getEmail());
+        out.writeBytes(user.getSsn() != null ? ssnCipher.seal(user.getSsn()) : null);
+
+        List<Address> addresses = user.getAddressData();
+        out.writeLength(addresses);
+        if (addresses != null) {
+            for (Address address : addresses) {
+                out.writeString(address.getCountry());
+                out.writeString(address.getCity());
+                out.writeString(address.getState());
+                out.writeString(address.getStreet());
+                out.writeString(address.getBuilding());
+                out.writeString(address.getRoom());
+            }
+        }
+        List<Phone> phones = user.getPhoneData();
+        out.writeLength(phones);
+        if (phones != null) {
+            for (Phone phone : phones) {
+                out.writeString(phone.getCode());
+                out.writeString(phone.getNumber());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the user stored with key {@code id}, reading {@code in} from its position onwards.
+     */
+    static UserDto decode(UUID id, ByteBuffer in, SsnCipher ssnCipher) {
+        UserDto user = new UserDto();
+        user.setId(id);
+        int flags = in.get();
+        if ((flags & DATE_OF_BIRTH) != 0) {
+            user.setDateOfBirth(LocalDate.ofEpochDay(in.getInt()));
+        }
+        if ((flags & FUNCTIONS) != 0) {
+            user.setFunctions(UserFunctionMask.fromMask(in.getShort()));
+        }
+        if ((flags & STATUS) != 0) {
+            user.setStatus(UserStatus.values()[in.get()]);
+        }
+        if ((flags & COMPANY_ID) != 0) {
+            user.setCompanyId(new UUID(in.getLong(), in.getLong()));
+        }
+        if ((flags & VERSION) != 0) {
+            user.setVersion(in.getLong());
+        }
+        user.setFirstName(readString(in));
+        user.setLastName(readString(in));
+        user.setUsername(readString(in));
+        user.setEmail(readString(in));
+        byte[] ssn = readBytes(in);
+        user.setSsn(ssn != null ? ssnCipher.open(ssn) : null);
+
+        int addresses = readVarInt(in) - 1;
+        if (addresses >= 0) {
+            List<Address> addressData = new ArrayList<>(addresses);
+            for (int i = 0; i < addresses; i++) {
+                addressData.add(new Address(readString(in), readString(in), readString(in),
+                        readString(in), readString(in), readString(in)));
+            }
+            user.setAddressData(addressData);
+        }
+        int phones = readVarInt(in) - 1;
+        if (phones >= 0) {
+            List<Phone> phoneData = new ArrayList<>(phones);
+            for (int i = 0; i < phones; i++) {
+                phoneData.add(new Phone(readString(in), readString(in)));
+            }
+            user.setPhoneData(phoneData);
+        }
+        return user;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = readBytes(in);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    // Unsynchronized and sized for a typical user, unlike ByteArrayOutputStream
+    private static final class Writer {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeShort(short value) {
+            writeByte(value >> 8);
+            writeByte(value);
+        }
+
+        void writeInt(int value) {
+            writeShort((short) (value >> 16));
+            writeShort((short) value);
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >> 32));
+            writeInt((int) value);
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void writeLength(List<?> list) {
+            writeVarInt(list == null ? 0 : list.size() + 1);
+        }
+
+        void writeString(String value) {
+            writeBytes(value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+        }
+
+        void writeBytes(byte[] bytes) {
+            if (bytes == null) {
+                writeVarInt(0);
+                return;
+            }
+            writeVarInt(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.coherentsolutions.pot.insurance_service.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spreads read-only connections round-robin over the replicas that are reachable and within
+ * {@code maxLag} of the primary, and falls back to the primary when none is. Replica state is
+ * refreshed in the background, so picking a target never costs a round trip.
+ */
+@Slf4j
+public class ReplicaPoolDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    // A replica that has replayed up to the primary's WAL position at the start of the check is
+    // current even if the primary is idle. Without that position, received-equals-replayed only
+    // proves currency while the WAL receiver is streaming: a standby cut off from the primary has
+    // replayed everything it received, too. Otherwise the lag is the age of the last replayed
+    // transaction, and unknown (infinite) if nothing was replayed yet.
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                            AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8, 'Infinity')
+                   END
+            """;
+
+    private final JdbcTemplate primary;
+    private final Map<String, DataSource> replicaDataSources;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final Set<String> available = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaPoolDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                 Duration maxLag, Duration checkInterval) {
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.replicaDataSources = Map.copyOf(replicas);
+        this.primary = new JdbcTemplate(primary);
+        this.primary.setQueryTimeout((int) Math.max(1, checkInterval.toSeconds()));
+
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        replicas.forEach((name, dataSource) -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout((int) Math.max(1, checkInterval.toSeconds()));
+            this.replicas.put(name, jdbcTemplate);
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (DataSource dataSource : replicaDataSources.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = replicas.keySet().stream().filter(available::contains).toList();
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    void checkReplicas() {
+        String primaryLsn = primaryLsn();
+        replicas.forEach((name, jdbcTemplate) -> {
+            try {
+                Double lagSeconds = jdbcTemplate.queryForObject(LAG_SQL, Double.class, primaryLsn);
+                boolean current = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+                if (current ? available.add(name) : available.remove(name)) {
+                    log.info("Replica {} {} read traffic (lag {}s)", name, current ? "joined" : "left", lagSeconds);
+                }
+            } catch (DataAccessException e) {
+                if (available.remove(name)) {
+                    log.warn("Replica {} left read traffic: {}", name, e.getMessage());
+                }
+            }
+        });
+    }
+
+    // Read before the replicas are queried, so a replica at or past it had every commit made until then
+    private String primaryLsn() {
+        try {
+            return primary.queryForObject(PRIMARY_LSN_SQL, String.class);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the primary WAL position: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    Set<String> availableReplicas() {
+        return Set.copyOf(available);
+    }
+}
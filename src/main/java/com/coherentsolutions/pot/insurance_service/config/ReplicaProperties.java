@@ -0,0 +1,28 @@
+package com.coherentsolutions.pot.insurance_service.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "insurance.datasource")
+public class ReplicaProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    // Replicas further behind than this stop receiving reads until they catch up
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+    private Duration replicaCheckInterval = Duration.ofSeconds(5);
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -1,19 +1,35 @@
 package com.coherentsolutions.pot.insurance_service.controller;
 
+import com.coherentsolutions.pot.insurance_service.cache.EncodedResponseCache;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
+import com.coherentsolutions.pot.insurance_service.dto.page.CursorPage;
+import com.coherentsolutions.pot.insurance_service.dto.page.SlicePage;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.enums.CountMode;
+import com.coherentsolutions.pot.insurance_service.enums.ExportFormat;
 import com.coherentsolutions.pot.insurance_service.service.CompanyManagementService;
+import com.coherentsolutions.pot.insurance_service.util.ETags;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,12 +40,38 @@ import java.util.UUID;
 @RequestMapping("/v1/companies")
 public class AdminCompanyManagementController {
     private final CompanyManagementService companyManagementService;
+    private final EncodedResponseCache encodedResponseCache;
 
     @GetMapping
     public Page<CompanyDto> getCompanies(CompanyFilter filter, Pageable pageable) {
         return companyManagementService.getCompaniesWithFilters(filter, pageable);
     }
 
+    @GetMapping(params = {"count", "count!=EXACT"})
+    public SlicePage<CompanyDto> getCompaniesSlice(CompanyFilter filter,
+                                                   @RequestParam("count") CountMode countMode,
+                                                   Pageable pageable) {
+        return companyManagementService.getCompaniesSlice(filter, pageable, countMode);
+    }
+
+    @GetMapping("/cursor")
+    public CursorPage<CompanyDto> getCompaniesByCursor(CompanyFilter filter,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) String before,
+                                                       Pageable pageable) {
+        return companyManagementService.getCompaniesByCursor(filter, after, before, pageable);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCompanies(CompanyFilter filter,
+                                                                 @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("companies." + format.extension()).build().toString())
+                .body(companyManagementService.exportCompanies(filter, format));
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public CompanyDto addCompany(@RequestBody CompanyDto companyDto) {
@@ -37,12 +79,38 @@ public class AdminCompanyManagementController {
     }
 
     @GetMapping("/{id}")
-    public CompanyDto viewCompanyDetails(@PathVariable UUID id) {
-        return companyManagementService.getCompanyDetails(id);
+    public ResponseEntity<byte[]> viewCompanyDetails(@PathVariable UUID id, WebRequest request) {
+        // Both lookups are in memory once warm: revalidation and full responses skip serialization
+        EncodedResponseCache.EncodedResponse company = encode(companyManagementService.getCompanyDetails(id));
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (request.checkNotModified(company.eTag(acceptEncoding))) {
+            return null;
+        }
+        return company.toResponse(acceptEncoding);
     }
 
     @PutMapping("/{id}")
-    public CompanyDto updateCompany(@PathVariable UUID id, @RequestBody CompanyDto request) {
-        return companyManagementService.updateCompany(id, request);
+    public ResponseEntity<byte[]> updateCompany(@PathVariable UUID id, @RequestBody CompanyDto request,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                String ifMatch,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                String acceptEncoding) {
+        CompanyDto company = companyManagementService.updateCompany(id, request, ETags.expectedVersions(ifMatch));
+        return encode(company).toResponse(acceptEncoding);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<byte[]> patchCompany(@PathVariable UUID id, @RequestBody JsonNode patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                               String ifMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                               String acceptEncoding) {
+        CompanyDto company = companyManagementService.patchCompany(id, patch, ETags.expectedVersions(ifMatch));
+        return encode(company).toResponse(acceptEncoding);
+    }
+
+    // Written responses go through the cache too, so their ETag is the one later reads will send
+    private EncodedResponseCache.EncodedResponse encode(CompanyDto company) {
+        return encodedResponseCache.get(CacheRegion.COMPANY, company.getId(), company.getVersion(), company);
     }
 }
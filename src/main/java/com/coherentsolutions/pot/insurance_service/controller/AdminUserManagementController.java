@@ -1,22 +1,43 @@
 package com.coherentsolutions.pot.insurance_service.controller;
 
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.coherentsolutions.pot.insurance_service.dto.page.CursorPage;
+import com.coherentsolutions.pot.insurance_service.dto.page.SlicePage;
+import com.coherentsolutions.pot.insurance_service.dto.user.BatchUserResult;
 import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
 import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserImportReport;
+import com.coherentsolutions.pot.insurance_service.enums.CountMode;
+import com.coherentsolutions.pot.insurance_service.enums.ExportFormat;
+import com.coherentsolutions.pot.insurance_service.service.UserImportService;
 import com.coherentsolutions.pot.insurance_service.service.UserManagementService;
+import com.coherentsolutions.pot.insurance_service.util.ETags;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,7 +46,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @RequestMapping("/v1/users")
 public class AdminUserManagementController {
+    private static final String EXPAND_COMPANY = "company";
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final UserManagementService userManagementService;
+    private final UserImportService userImportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -33,15 +58,107 @@ public class AdminUserManagementController {
         return userManagementService.createUser(userDto);
     }
 
+    @PostMapping("/batch")
+    public List<BatchUserResult> createUsers(@RequestBody List<UserDto> users) {
+        return userManagementService.createUsers(users);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public UserImportReport importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        InputStream body) {
+        return userImportService.importUsers(body, contentType);
+    }
+
     @GetMapping
-    public Page<UserDto> getUsersWithFilters(UserFilter filter, Pageable pageable) {
-        return userManagementService.getUsersWithFilters(filter, pageable);
+    public Page<UserDto> getUsersWithFilters(UserFilter filter,
+                                             @RequestParam(required = false) Set<String> expand,
+                                             Pageable pageable) {
+        Page<UserDto> users = userManagementService.getUsersWithFilters(filter, pageable);
+        expand(users.getContent(), expand);
+        return users;
+    }
+
+    @GetMapping(params = {"count", "count!=EXACT"})
+    public SlicePage<UserDto> getUsersSlice(UserFilter filter,
+                                            @RequestParam("count") CountMode countMode,
+                                            @RequestParam(required = false) Set<String> expand,
+                                            Pageable pageable) {
+        SlicePage<UserDto> users = userManagementService.getUsersSlice(filter, pageable, countMode);
+        expand(users.getContent(), expand);
+        return users;
+    }
+
+    @GetMapping("/search")
+    public List<UserDto> searchUsers(@RequestParam("q") String query,
+                                     @RequestParam(defaultValue = "20") int limit,
+                                     @RequestParam(required = false) Set<String> expand) {
+        List<UserDto> users = userManagementService.searchUsers(query, limit);
+        expand(users, expand);
+        return users;
+    }
+
+    @GetMapping("/cursor")
+    public CursorPage<UserDto> getUsersByCursor(UserFilter filter,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(required = false) String before,
+                                                @RequestParam(required = false) Set<String> expand,
+                                                Pageable pageable) {
+        CursorPage<UserDto> users = userManagementService.getUsersByCursor(filter, after, before, pageable);
+        expand(users.getContent(), expand);
+        return users;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(UserFilter filter,
+                                                             @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + format.extension()).build().toString())
+                .body(userManagementService.exportUsers(filter, format));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UserDto> getUser(@PathVariable("id") UUID id,
+                                           @RequestParam(required = false) Set<String> expand,
+                                           WebRequest request) {
+        // Revalidation only reads the cached version: an unchanged user is never serialized.
+        // The embedded company has its own version, so expanded responses are not tagged.
+        boolean expandCompany = expand != null && expand.contains(EXPAND_COMPANY);
+        if (!expandCompany && request.checkNotModified(ETags.of(userManagementService.getUserVersion(id)))) {
+            return null;
+        }
+        UserDto user = userManagementService.getUser(id);
+        if (expandCompany) {
+            // The cached user is shared, so the company goes into a copy
+            UserDto expanded = user.toBuilder().build();
+            userManagementService.embedCompanies(List.of(expanded));
+            return ResponseEntity.ok(expanded);
+        }
+        return ETags.ok(user, user.getVersion());
     }
 
     @PutMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public UserDto updateUser(@PathVariable("id") UUID id, @RequestBody UserDto request) {
-        return userManagementService.updateUser(id, request);
+    public ResponseEntity<UserDto> updateUser(@PathVariable("id") UUID id, @RequestBody UserDto request,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
+        UserDto user = userManagementService.updateUser(id, request, ETags.expectedVersions(ifMatch));
+        return ETags.ok(user, user.getVersion());
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON)
+    public ResponseEntity<UserDto> patchUser(@PathVariable("id") UUID id, @RequestBody JsonNode patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                             String ifMatch) {
+        UserDto user = userManagementService.patchUser(id, patch, ETags.expectedVersions(ifMatch));
+        return ETags.ok(user, user.getVersion());
+    }
+
+    // Company rows are only read when the caller explicitly asks for them
+    private void expand(List<UserDto> users, Set<String> expand) {
+        if (expand != null && expand.contains(EXPAND_COMPANY)) {
+            userManagementService.embedCompanies(users);
+        }
     }
 
 }
@@ -0,0 +1,25 @@
+package com.coherentsolutions.pot.insurance_service.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coherentsolutions.pot.insurance_service.dto.analytics.SnapshotExportReport;
+import com.coherentsolutions.pot.insurance_service.service.AnalyticsSnapshotExport;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/analytics")
+public class AnalyticsExportController {
+    private final AnalyticsSnapshotExport analyticsSnapshotExport;
+
+    @PostMapping("/snapshots")
+    @ResponseStatus(HttpStatus.CREATED)
+    public SnapshotExportReport exportSnapshot() {
+        return analyticsSnapshotExport.export();
+    }
+}
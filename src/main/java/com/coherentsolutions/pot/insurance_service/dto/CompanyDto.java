@@ -26,5 +26,7 @@ public class CompanyDto {
     private Instant createdAt;
     private UUID updatedBy;
     private Instant updatedAt;
+    // Also sent as the ETag; changes with every update
+    private Long version;
 
 }
@@ -1,16 +1,20 @@
 package com.coherentsolutions.pot.insurance_service.dto;
 
 import com.coherentsolutions.pot.insurance_service.enums.CompanyStatus;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.Instant;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
 
 
 @Setter
 @Getter
 @NoArgsConstructor
+@EqualsAndHashCode
 public class CompanyFilter {
     private String name;
     private String countryCode;
@@ -19,4 +23,25 @@ public class CompanyFilter {
     private Instant createdTo;
     private Instant updatedFrom;
     private Instant updatedTo;
+
+    /**
+     * Returns an equivalent filter in canonical form, e.g. for use as a cache key: text is
+     * trimmed, the name lower-cased and the country code upper-cased the way the search matches
+     * them, and blank text is dropped.
+     */
+    public CompanyFilter normalized() {
+        CompanyFilter normalized = new CompanyFilter();
+        normalized.setName(normalize(name, text -> text.toLowerCase(Locale.ROOT)));
+        normalized.setCountryCode(normalize(countryCode, text -> text.toUpperCase(Locale.ROOT)));
+        normalized.setStatus(status);
+        normalized.setCreatedFrom(createdFrom);
+        normalized.setCreatedTo(createdTo);
+        normalized.setUpdatedFrom(updatedFrom);
+        normalized.setUpdatedTo(updatedTo);
+        return normalized;
+    }
+
+    private static String normalize(String text, UnaryOperator<String> caseMapping) {
+        return text == null || text.isBlank() ? null : caseMapping.apply(text.trim());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.coherentsolutions.pot.insurance_service.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotExportReport {
+    private SnapshotFile companies;
+    private SnapshotFile users;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SnapshotFile {
+        // Absolute path on the node that ran the export
+        private String path;
+        private long rows;
+    }
+}
@@ -0,0 +1,38 @@
+package com.coherentsolutions.pot.insurance_service.dto.page;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of results addressed by an opaque keyset cursor instead of an offset.
+ * Pass {@code nextCursor} back as the {@code after} parameter to read the following page,
+ * or {@code previousCursor} as the {@code before} parameter to read the preceding one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private boolean hasPrevious;
+    private String previousCursor;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> converter) {
+        return CursorPage.<R>builder()
+                .content(content.stream().<R>map(converter).toList())
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .hasPrevious(hasPrevious)
+                .previousCursor(previousCursor)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.coherentsolutions.pot.insurance_service.dto.page;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of results that only knows whether another page follows, optionally carrying an
+ * approximate total instead of the exact count a {@link org.springframework.data.domain.Page} needs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlicePage<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private boolean hasNext;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalEstimate;
+
+    public static <T> SlicePage<T> of(Slice<T> slice, Long totalEstimate) {
+        return SlicePage.<T>builder()
+                .content(slice.getContent())
+                .number(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .totalEstimate(totalEstimate)
+                .build();
+    }
+}
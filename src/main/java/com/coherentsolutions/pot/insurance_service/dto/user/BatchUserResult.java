@@ -0,0 +1,25 @@
+package com.coherentsolutions.pot.insurance_service.dto.user;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.coherentsolutions.pot.insurance_service.enums.BatchItemStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchUserResult {
+    // Position of the user in the request array
+    private int index;
+    private BatchItemStatus status;
+    private UUID id;
+    private List<String> errors;
+}
@@ -5,18 +5,21 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
 import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
 import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
 import com.coherentsolutions.pot.insurance_service.model.Address;
 import com.coherentsolutions.pot.insurance_service.model.Phone;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserDto {
@@ -32,4 +35,9 @@ public class UserDto {
     private Set<UserFunction> functions;
     private UserStatus status;
     private UUID companyId; 
+    // Also sent as the ETag; changes with every update
+    private Long version;
+    // Only populated when the caller asks for it with expand=company
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CompanyDto company;
 }
@@ -3,10 +3,12 @@ package com.coherentsolutions.pot.insurance_service.dto.user;
 import java.time.LocalDate;
 import java.util.Set;
 
+import com.coherentsolutions.pot.insurance_service.enums.FunctionMatch;
 import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
 import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
 
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -14,6 +16,7 @@ import lombok.Setter;
 @Setter
 @Getter
 @NoArgsConstructor
+@EqualsAndHashCode
 @AllArgsConstructor
 public class UserFilter {
     private String name;
@@ -22,4 +25,6 @@ public class UserFilter {
     private UserStatus status;
     private String ssn;
     private Set<UserFunction> functions;
+    // How functions are matched: ANY (default) or ALL of them
+    private FunctionMatch functionMatch;
 }
@@ -0,0 +1,29 @@
+package com.coherentsolutions.pot.insurance_service.dto.user;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportReport {
+    private long received;
+    private long imported;
+    private long rejected;
+    // The first rejected rows in input order; rejected may be larger than this list
+    private List<Reject> rejects;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reject {
+        // 1-based position of the record in the input, header excluded
+        private long row;
+        private String error;
+    }
+}
@@ -0,0 +1,27 @@
+package com.coherentsolutions.pot.insurance_service.dto.user;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One record of a bulk import, kept as raw text: types, references and uniqueness are checked
+ * in set-based SQL once all rows are staged, so a bad value rejects its row and not the file.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRow {
+    private String firstName;
+    private String lastName;
+    private String username;
+    private String email;
+    private String dateOfBirth;
+    private String ssn;
+    private String companyId;
+    // In CSV the functions column holds names separated by ';'
+    private List<String> functions;
+}
@@ -0,0 +1,6 @@
+package com.coherentsolutions.pot.insurance_service.enums;
+
+public enum BatchItemStatus {
+    CREATED,
+    REJECTED
+}
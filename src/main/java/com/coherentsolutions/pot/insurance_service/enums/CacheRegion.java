@@ -0,0 +1,7 @@
+package com.coherentsolutions.pot.insurance_service.enums;
+
+// Names travel in NOTIFY payloads between nodes; renaming one breaks mixed-version deployments
+public enum CacheRegion {
+    COMPANY,
+    USER
+}
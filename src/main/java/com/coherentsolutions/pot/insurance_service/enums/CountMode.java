@@ -0,0 +1,7 @@
+package com.coherentsolutions.pot.insurance_service.enums;
+
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE
+}
@@ -1,5 +1,6 @@
 package com.coherentsolutions.pot.insurance_service.enums;
 
+// Declaration order defines the bit of each value in users.function_mask; only append new values
 public enum UserFunction {
     COMPANY_MANAGER,
     COMPANY_CLAIM_MANAGER,
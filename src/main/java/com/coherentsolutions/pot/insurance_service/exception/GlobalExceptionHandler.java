@@ -2,6 +2,7 @@ package com.coherentsolutions.pot.insurance_service.exception;
 
 import com.coherentsolutions.pot.insurance_service.dto.error.ErrorResponseDto;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -68,6 +69,25 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         );
         return new ResponseEntity<>(error, headers, statusCode);
     }
+    // Someone else updated the row between our read and our write. With If-Match the client asked
+    // for exactly this check, so it gets 412; otherwise the concurrent edit is reported as 409.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailure(OptimisticLockingFailureException ex,
+                                                                           HttpServletRequest request) {
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.CONFLICT;
+        Map<String,Object> details = Map.of(
+                "timestamp", Instant.now().toString(),
+                "endpoint",  request.getMethod() + " " + request.getRequestURI()
+        );
+        ErrorResponseDto error = new ErrorResponseDto(
+                status.name(),
+                "The resource was modified concurrently",
+                details
+        );
+        return new ResponseEntity<>(error, status);
+    }
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleGenericException(Exception ex, HttpServletRequest request){
         Map<String,Object> details = Map.of(
@@ -12,6 +12,7 @@ public interface CompanyMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "status", source = "status")
     Company toEntity(CompanyDto dto);
 
@@ -1,6 +1,8 @@
 package com.coherentsolutions.pot.insurance_service.mapper;
 
+import java.util.EnumSet;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.mapstruct.Mapper;
@@ -8,24 +10,45 @@ import org.mapstruct.Mapping;
 
 import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
 import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.model.Company;
 import com.coherentsolutions.pot.insurance_service.model.User;
 import com.coherentsolutions.pot.insurance_service.model.UserFunctionAssignment;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
 
-    @Mapping(source = "company.id", target = "companyId")
+    @Mapping(target = "company", ignore = true)
+    @Mapping(target = "functions", expression = "java(functionsOf(user))")
     UserDto toDto(User user);
 
-    @Mapping(source = "companyId", target = "company.id")
+    @Mapping(source = "companyId", target = "company")
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "ssnHash", ignore = true)
+    @Mapping(target = "ssnLast4", ignore = true)
+    @Mapping(target = "functionMask", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "status", constant = "ACTIVE")
     User toEntity(UserDto dto);
 
+    default Company toCompanyReference(UUID companyId) {
+        if (companyId == null)
+            return null;
+        Company company = new Company();
+        company.setId(companyId);
+        return company;
+    }
+
+    // Bitmask users never touch the lazy assignments collection
+    default Set<UserFunction> functionsOf(User user) {
+        return user.getFunctionMask() != null
+                ? EnumSet.copyOf(user.getFunctionMask())
+                : mapToFunctions(user.getFunctions());
+    }
+
     default Set<UserFunction> mapToFunctions(Set<UserFunctionAssignment> assignments) {
         if (assignments == null)
             return null;
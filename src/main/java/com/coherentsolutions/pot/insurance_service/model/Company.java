@@ -4,6 +4,7 @@ package com.coherentsolutions.pot.insurance_service.model;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
@@ -13,6 +14,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedBy;
@@ -22,6 +27,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import com.coherentsolutions.pot.insurance_service.enums.CompanyStatus;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -29,6 +35,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "companies")
+@DynamicUpdate
 @EntityListeners(AuditingEntityListener.class)
 @NoArgsConstructor
 @Getter
@@ -40,10 +49,12 @@ public class Company {
     private UUID id;
 
     @NotBlank
+    @Size(max = 255)
     @Column(name = "name", nullable = false)
     private String name;
 
     @NotBlank
+    @Size(max = 3)
     @Column(name = "country_code", nullable = false, length = 3)
     private String countryCode;
 
@@ -56,8 +67,10 @@ public class Company {
     private List<Phone> phoneData;
 
     @Email
+    @Size(max = 255)
     private String email;
 
+    @Size(max = 255)
     private String website;
 
     @Enumerated(EnumType.STRING)
@@ -80,4 +93,8 @@ public class Company {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
@@ -2,10 +2,15 @@ package com.coherentsolutions.pot.insurance_service.model;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedBy;
@@ -13,10 +18,12 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
 import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -28,13 +35,16 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@DynamicUpdate
 @NoArgsConstructor
 @Getter
 @Setter
@@ -45,18 +55,22 @@ public class User {
     private UUID id;
 
     @NotBlank
+    @Size(max = 100)
     @Column(name = "first_name", length = 100, nullable = false)
     private String firstName;
 
     @NotBlank
+    @Size(max = 100)
     @Column(name = "last_name", length = 100, nullable = false)
     private String lastName;
 
     @NotBlank
+    @Size(max = 50)
     @Column(name = "username", length = 50, unique = true, nullable = false)
     private String username;
 
     @NotBlank
+    @Size(max = 255)
     @Column(name = "email", unique = true, nullable = false)
     private String email;
 
@@ -73,19 +87,40 @@ public class User {
     private LocalDate dateOfBirth;
 
     @NotBlank
+    @Size(max = 11)
     @Column(name = "ssn", length = 11, unique = true, nullable = false)
     private String ssn;
 
-    @ManyToOne
+    // HMAC blind index of the SSN digits; exact SSN lookups probe this instead of scanning ssn
+    @Column(name = "ssn_hash", length = 64, unique = true)
+    private String ssnHash;
+
+    @Column(name = "ssn_last4", length = 4)
+    private String ssnLast4;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
 
+    // Read-only view of the foreign key, so reading the company id never loads the company row
+    @Column(name = "company_id", insertable = false, updatable = false)
+    private UUID companyId;
+
     @Enumerated(EnumType.STRING)
     private UserStatus status;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Loaded on first access for a whole page at once: Postgres receives the user ids as one array
+    // parameter, so the batch size only needs to cover the largest page Spring Data web allows
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 2000)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-function-collections")
     private Set<UserFunctionAssignment> functions;
 
+    // Set when the user's functions are stored as a bitmask; null means they live in user_functions
+    @Convert(converter = UserFunctionMaskConverter.class)
+    @Column(name = "function_mask")
+    private EnumSet<UserFunction> functionMask;
+
     @CreatedBy
     @Column(name = "created_by")
     private UUID createdBy;
@@ -102,4 +137,8 @@ public class User {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
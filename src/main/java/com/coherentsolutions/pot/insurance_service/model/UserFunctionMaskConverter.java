@@ -0,0 +1,23 @@
+package com.coherentsolutions.pot.insurance_service.model;
+
+import java.util.EnumSet;
+
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class UserFunctionMaskConverter implements AttributeConverter<EnumSet<UserFunction>, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(EnumSet<UserFunction> functions) {
+        return functions == null ? null : UserFunctionMask.toMask(functions);
+    }
+
+    @Override
+    public EnumSet<UserFunction> convertToEntityAttribute(Short mask) {
+        return mask == null ? null : UserFunctionMask.fromMask(mask);
+    }
+}
@@ -0,0 +1,24 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+
+public interface CompanyRepositoryCustom {
+
+    Slice<Company> findSlice(Specification<Company> specification, Pageable pageable);
+
+    Page<CompanyDto> findDtoPage(Specification<Company> specification, Pageable pageable);
+
+    /**
+     * Streams every matching company in id order, in chunks, from a read-only server-side cursor.
+     */
+    void export(Specification<Company> specification, Consumer<List<CompanyDto>> chunkConsumer);
+}
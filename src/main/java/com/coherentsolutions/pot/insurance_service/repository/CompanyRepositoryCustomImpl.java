@@ -0,0 +1,76 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.hibernate.SessionFactory;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.enums.CompanyStatus;
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.Tuple;
+
+public class CompanyRepositoryCustomImpl implements CompanyRepositoryCustom {
+    private static final List<String> DTO_ATTRIBUTES = List.of(
+            "id", "name", "countryCode", "addressData", "phoneData", "email", "website", "status",
+            "createdBy", "createdAt", "updatedBy", "updatedAt", "version");
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Slice<Company> findSlice(Specification<Company> specification, Pageable pageable) {
+        return SpecificationSlices.findSlice(entityManager, Company.class, specification, pageable);
+    }
+
+    @Override
+    public Page<CompanyDto> findDtoPage(Specification<Company> specification, Pageable pageable) {
+        return SpecificationProjections.findPage(entityManager, Company.class, specification, pageable, DTO_ATTRIBUTES)
+                .map(CompanyRepositoryCustomImpl::toDto);
+    }
+
+    @Override
+    public void export(Specification<Company> specification, Consumer<List<CompanyDto>> chunkConsumer) {
+        SpecificationProjections.scroll(entityManagerFactory.unwrap(SessionFactory.class), Company.class,
+                specification, DTO_ATTRIBUTES, EXPORT_FETCH_SIZE,
+                (session, rows) -> chunkConsumer.accept(rows.stream().map(CompanyRepositoryCustomImpl::toDto).toList()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompanyDto toDto(Tuple tuple) {
+        return CompanyDto.builder()
+                .id(tuple.get("id", UUID.class))
+                .name(tuple.get("name", String.class))
+                .countryCode(tuple.get("countryCode", String.class))
+                .addressData((List<Address>) tuple.get("addressData"))
+                .phoneData((List<Phone>) tuple.get("phoneData"))
+                .email(tuple.get("email", String.class))
+                .website(tuple.get("website", String.class))
+                .status(tuple.get("status", CompanyStatus.class))
+                .createdBy(tuple.get("createdBy", UUID.class))
+                .createdAt(tuple.get("createdAt", Instant.class))
+                .updatedBy(tuple.get("updatedBy", UUID.class))
+                .updatedAt(tuple.get("updatedAt", Instant.class))
+                .version(tuple.get("version", Long.class))
+                .build();
+    }
+}
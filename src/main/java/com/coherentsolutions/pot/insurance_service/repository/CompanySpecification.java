@@ -35,10 +35,11 @@ public class CompanySpecification {
     }
 
     private static Predicate namePredicate(CompanyFilter filter, Root<Company> root, CriteriaBuilder criteriaBuilder) {
+        // Served by the idx_companies_name_trgm GIN index on lower(name)
         return StringUtils.hasText(filter.getName()) 
             ? criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("name")),
-                "%" + filter.getName().toLowerCase() + "%"
+                SearchPatterns.containsPattern(filter.getName())
             )
             : null;
     }
@@ -47,7 +48,7 @@ public class CompanySpecification {
         return StringUtils.hasText(filter.getCountryCode())
             ? criteriaBuilder.equal(
                 root.get("countryCode"),
-                filter.getCountryCode().toUpperCase()
+                filter.getCountryCode().trim().toUpperCase()
             )
             : null;
     }
@@ -0,0 +1,79 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position of the last row of a keyset page: the sort property, its direction, the row's value
+ * for that property and the row id used as a tie-breaker. Encoded as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    private static final String SEPARATOR = "|";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final UUID id;
+    private final String value;
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last so it may itself contain the separator
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw invalidCursor();
+            }
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), UUID.fromString(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * Converts the encoded value back to the Java type of the attribute it was taken from.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparable<?> typedValue(Class<?> javaType) {
+        try {
+            if (String.class.equals(javaType)) {
+                return value;
+            }
+            if (Instant.class.equals(javaType)) {
+                return Instant.parse(value);
+            }
+            if (LocalDate.class.equals(javaType)) {
+                return LocalDate.parse(value);
+            }
+            if (UUID.class.equals(javaType)) {
+                return UUID.fromString(value);
+            }
+            if (javaType.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) javaType, value);
+            }
+        } catch (RuntimeException e) {
+            throw invalidCursor();
+        }
+        throw invalidCursor();
+    }
+
+    static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,164 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.coherentsolutions.pot.insurance_service.dto.page.CursorPage;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Seek-based pagination on top of any {@link Specification}. Rows are ordered by a single
+ * whitelisted property plus {@code id} as a tie-breaker, and each page starts right after (or
+ * ends right before) the position stored in the cursor, so no rows are skipped with OFFSET,
+ * concurrent inserts cannot shift page boundaries, and no count query is issued.
+ */
+public class KeysetPagination {
+
+    private static final String ID = "id";
+
+    private KeysetPagination() {
+
+    }
+
+    /**
+     * Reads the page that follows {@code after}, the page that precedes {@code before}, or the
+     * first page when both are {@code null}. Only the first sort order of {@code pageable} is used;
+     * its property must be one of {@code sortableProperties} and must map to a non-null column.
+     */
+    public static <T> CursorPage<T> fetch(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> filter,
+            String after,
+            String before,
+            Pageable pageable,
+            Set<String> sortableProperties) {
+
+        if (after != null && before != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only one of 'after' and 'before' may be given");
+        }
+
+        Sort.Order order = resolveOrder(pageable.getSort(), sortableProperties);
+        int size = pageable.isPaged() ? pageable.getPageSize() : 20;
+        boolean backward = before != null;
+
+        // Reading backwards walks the index in the opposite direction and flips the page afterwards
+        Sort.Order scanOrder = backward
+                ? order.with(order.getDirection().isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC)
+                : order;
+
+        Specification<T> specification = filter;
+        String token = backward ? before : after;
+        if (token != null) {
+            KeysetCursor cursor = KeysetCursor.decode(token);
+            if (!cursor.getProperty().equals(order.getProperty()) || cursor.getDirection() != order.getDirection()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match the requested sort");
+            }
+            specification = filter.and(seek(cursor, scanOrder.getDirection()));
+        }
+
+        Sort sort = seekSort(scanOrder);
+        List<T> rows = repository.findBy(specification, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean more = rows.size() > size;
+        List<T> content = new ArrayList<>(more ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(content);
+        }
+
+        // A page is only announced when there is a cursor to request it with, so an empty page
+        // reports neither direction
+        String nextCursor = (backward || more) && !content.isEmpty()
+                ? cursorOf(content.get(content.size() - 1), order).encode()
+                : null;
+        String previousCursor = (backward ? more : after != null) && !content.isEmpty()
+                ? cursorOf(content.get(0), order).encode()
+                : null;
+
+        return CursorPage.<T>builder()
+                .content(content)
+                .size(size)
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .hasPrevious(previousCursor != null)
+                .previousCursor(previousCursor)
+                .build();
+    }
+
+    static Sort.Order resolveOrder(Sort sort, Set<String> sortableProperties) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return Sort.Order.asc(ID);
+        }
+        if (orders.size() > 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor pagination supports a single sort property");
+        }
+        Sort.Order order = orders.get(0);
+        if (!ID.equals(order.getProperty()) && !sortableProperties.contains(order.getProperty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination is not supported for sort property: " + order.getProperty());
+        }
+        return order;
+    }
+
+    static Sort seekSort(Sort.Order order) {
+        return ID.equals(order.getProperty())
+                ? Sort.by(order)
+                : Sort.by(order, new Sort.Order(order.getDirection(), ID));
+    }
+
+    static KeysetCursor cursorOf(Object row, Sort.Order order) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(row);
+        UUID id = (UUID) wrapper.getPropertyValue(ID);
+        Object value = wrapper.getPropertyValue(order.getProperty());
+        return new KeysetCursor(order.getProperty(), order.getDirection(), id, String.valueOf(value));
+    }
+
+    /**
+     * Matches rows strictly beyond the cursor position in the given scan direction. The redundant
+     * {@code key >= value} bound lets Postgres start the {@code (key, id)} index scan at the cursor
+     * instead of filtering every preceding row out of it.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> Specification<T> seek(KeysetCursor cursor, Sort.Direction scanDirection) {
+        return (root, query, criteriaBuilder) -> {
+            boolean ascending = scanDirection.isAscending();
+            Path<UUID> id = root.get(ID);
+            Predicate idBeyond = beyond(criteriaBuilder, id, cursor.getId(), ascending);
+
+            if (ID.equals(cursor.getProperty())) {
+                return idBeyond;
+            }
+
+            Path<Comparable> key = root.get(cursor.getProperty());
+            Comparable value = cursor.typedValue(key.getJavaType());
+            Predicate keyReached = ascending
+                    ? criteriaBuilder.greaterThanOrEqualTo(key, value)
+                    : criteriaBuilder.lessThanOrEqualTo(key, value);
+
+            return criteriaBuilder.and(
+                    keyReached,
+                    criteriaBuilder.or(beyond(criteriaBuilder, key, value, ascending), idBeyond));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder criteriaBuilder, Path path, Comparable value, boolean ascending) {
+        return ascending
+                ? criteriaBuilder.greaterThan(path, value)
+                : criteriaBuilder.lessThan(path, value);
+    }
+}
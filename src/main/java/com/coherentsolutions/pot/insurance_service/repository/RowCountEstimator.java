@@ -0,0 +1,95 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cheap substitutes for {@code SELECT count(*)} on list endpoints. Unfiltered lists use the
+ * planner's row estimate from {@code pg_class.reltuples}; filtered lists reuse an exact count
+ * for the configured TTL, so repeated dashboard queries do not pay for the count every time.
+ */
+@Repository
+public class RowCountEstimator {
+
+    private static final int MAX_CACHED_COUNTS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AsyncCache<CountKey, Long> cachedCounts;
+
+    public RowCountEstimator(JdbcTemplate jdbcTemplate,
+                             @Value("${insurance.pagination.count-cache-ttl:PT1M}") Duration countTtl) {
+        this(jdbcTemplate, countTtl, Clock.systemUTC());
+    }
+
+    RowCountEstimator(JdbcTemplate jdbcTemplate, Duration countTtl, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cachedCounts = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_COUNTS)
+                .expireAfterWrite(countTtl)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .buildAsync();
+    }
+
+    /**
+     * Estimates the number of rows in {@code table} matching {@code filter}. {@code unfiltered}
+     * tells whether the filter has no predicates; {@code exactCount} runs the real count.
+     */
+    public long estimate(String table, Object filter, boolean unfiltered, LongSupplier exactCount) {
+        if (unfiltered) {
+            Long plannerEstimate = plannerEstimate(table);
+            if (plannerEstimate != null) {
+                return plannerEstimate;
+            }
+        }
+        return cachedCount(table, filter, exactCount);
+    }
+
+    Long plannerEstimate(String table) {
+        // reltuples is -1 until the table has been vacuumed or analyzed at least once
+        List<Long> estimates = jdbcTemplate.queryForList(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+        return estimates.isEmpty() || estimates.get(0) == null || estimates.get(0) < 0 ? null : estimates.get(0);
+    }
+
+    long cachedCount(String table, Object filter, LongSupplier exactCount) {
+        // The first miss claims the key with a pending count and runs the query on its own thread,
+        // inside the caller's transaction and without holding a map lock; concurrent misses wait
+        // for that count instead of running their own
+        CompletableFuture<Long> count = new CompletableFuture<>();
+        CompletableFuture<Long> claimed = cachedCounts.asMap().putIfAbsent(new CountKey(table, filter), count);
+        if (claimed != null) {
+            return join(claimed);
+        }
+        try {
+            count.complete(exactCount.getAsLong());
+        } catch (RuntimeException e) {
+            // A failed count is dropped from the cache, so the next request tries again
+            count.completeExceptionally(e);
+            throw e;
+        }
+        return count.join();
+    }
+
+    private static long join(CompletableFuture<Long> count) {
+        try {
+            return count.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private record CountKey(String table, Object filter) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Builds search terms for indexed text lookups. Substring patterns for {@code lower(column) LIKE ?}
+ * predicates are served by the {@code gin_trgm_ops} expression indexes on {@code lower(column)},
+ * so predicates must lower-case the column rather than use ILIKE or another expression the index
+ * was not built on. Prefix queries are matched against the {@code users.search_vector} column.
+ */
+public class SearchPatterns {
+
+    private SearchPatterns() {
+
+    }
+
+    /**
+     * Wraps the lower-cased term in {@code %} after escaping LIKE wildcards with a backslash,
+     * which is PostgreSQL's default LIKE escape character.
+     */
+    public static String containsPattern(String term) {
+        String escaped = term.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Turns free text into a {@code to_tsquery('simple', ...)} expression requiring every word as
+     * a prefix, e.g. {@code "Jo Smi"} becomes {@code "jo:* & smi:*"}. Only letters and digits are
+     * kept, so user input cannot inject tsquery operators. Returns {@code null} if nothing is left.
+     */
+    public static String prefixTsQuery(String text) {
+        String query = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        return query.isEmpty() ? null : query;
+    }
+}
@@ -0,0 +1,130 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Runs a {@link Specification} as a page, or a full scroll, of {@link Tuple}s holding only the given attributes.
+ * Nothing enters the persistence context, so there is no entity instantiation, no snapshot for
+ * dirty checking and no flush work for rows that are only going to be serialized.
+ */
+public class SpecificationProjections {
+
+    private SpecificationProjections() {
+
+    }
+
+    public static <T> Page<Tuple> findPage(EntityManager entityManager, Class<T> domainClass,
+                                           Specification<T> specification, Pageable pageable,
+                                           List<String> attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(attributes.stream()
+                .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                .toList());
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        // Like findAll(spec, pageable), the count is skipped when the page itself reveals the total
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> count(entityManager, domainClass, specification));
+    }
+
+    /**
+     * Streams every row matching {@code specification} in primary key order through a forward-only
+     * server-side cursor and hands them to {@code chunkConsumer} {@code fetchSize} rows at a time.
+     * A stateless session in a read-only transaction keeps memory flat regardless of the result
+     * size; the consumer may use the session for follow-up lookups on each chunk.
+     */
+    public static <T> void scroll(SessionFactory sessionFactory, Class<T> domainClass,
+                                  Specification<T> specification, List<String> attributes, int fetchSize,
+                                  BiConsumer<StatelessSession, List<Tuple>> chunkConsumer) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // Before the first statement, so a routing datasource can still pick a replica
+            session.doWork(connection -> connection.setReadOnly(true));
+            Transaction transaction = session.beginTransaction();
+            try {
+                CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+                CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+                Root<T> root = query.from(domainClass);
+
+                Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+                if (predicate != null) {
+                    query.where(predicate);
+                }
+                query.multiselect(attributes.stream()
+                        .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                        .toList());
+                query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+                List<Tuple> chunk = new ArrayList<>(fetchSize);
+                try (ScrollableResults<Tuple> rows = session.createQuery(query)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        chunk.add(rows.get());
+                        if (chunk.size() == fetchSize) {
+                            chunkConsumer.accept(session, chunk);
+                            chunk = new ArrayList<>(fetchSize);
+                        }
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    chunkConsumer.accept(session, chunk);
+                }
+            } finally {
+                // Nothing was written; ending the transaction also closes the cursor
+                transaction.rollback();
+            }
+        }
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> domainClass, Specification<T> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(criteriaBuilder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,121 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.coherentsolutions.pot.insurance_service.model.User;
+import com.coherentsolutions.pot.insurance_service.model.UserFunctionAssignment;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plain JDBC batch inserts for bulk user creation. With {@code reWriteBatchedInserts=true} on the
+ * JDBC URL the driver folds each batch into multi-row INSERT statements, so a few thousand users
+ * cost a handful of round trips instead of one per row. Entities must already carry their ids.
+ * The audit columns are filled from the same {@link AuditorAware} JPA auditing uses.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchWriter {
+    private static final int BATCH_SIZE = 500;
+    private static final Set<String> UNIQUE_COLUMNS = Set.of("username", "email", "ssn_hash");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<UUID> auditorProvider;
+
+    public void insert(List<User> users) {
+        UUID auditor = auditorProvider.getCurrentAuditor().orElse(null);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, ssn_hash,
+                                   ssn_last4, phone_data, address_data, company_id, status, function_mask,
+                                   created_by, updated_by)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?, ?, ?)
+                """, users, BATCH_SIZE, (statement, user) -> {
+            statement.setObject(1, user.getId());
+            statement.setString(2, user.getFirstName());
+            statement.setString(3, user.getLastName());
+            statement.setString(4, user.getUsername());
+            statement.setString(5, user.getEmail());
+            statement.setObject(6, user.getDateOfBirth());
+            statement.setString(7, user.getSsn());
+            statement.setString(8, user.getSsnHash());
+            statement.setString(9, user.getSsnLast4());
+            statement.setString(10, toJson(user.getPhoneData()));
+            statement.setString(11, toJson(user.getAddressData()));
+            statement.setObject(12, user.getCompanyId());
+            statement.setString(13, user.getStatus().name());
+            statement.setObject(14, user.getFunctionMask() == null
+                    ? null
+                    : UserFunctionMask.toMask(user.getFunctionMask()), Types.SMALLINT);
+            statement.setObject(15, auditor);
+            statement.setObject(16, auditor);
+        });
+
+        List<UserFunctionAssignment> assignments = users.stream()
+                .filter(user -> user.getFunctions() != null)
+                .flatMap(user -> user.getFunctions().stream())
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO user_functions (id, function, user_id) VALUES (?, ?, ?)",
+                assignments, BATCH_SIZE, (statement, assignment) -> {
+                    statement.setObject(1, UUID.randomUUID());
+                    statement.setString(2, assignment.getFunction().name());
+                    statement.setObject(3, assignment.getUser().getId());
+                });
+    }
+
+    /**
+     * Returns which of {@code values} already exist in the given unique column, in one query.
+     */
+    public Set<String> existing(String column, Collection<String> values) {
+        if (!UNIQUE_COLUMNS.contains(column)) {
+            throw new IllegalArgumentException("Not a unique user column: " + column);
+        }
+        if (values.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT " + column + " FROM users WHERE " + column + " = ANY (?)",
+                statement -> statement.setArray(1, textArray(statement.getConnection(), values)),
+                (row, rowNum) -> row.getString(1)));
+    }
+
+    public Set<UUID> existingCompanies(Collection<UUID> companyIds) {
+        if (companyIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT id FROM companies WHERE id = ANY (?)",
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("uuid", companyIds.toArray())),
+                (row, rowNum) -> row.getObject(1, UUID.class)));
+    }
+
+    private static Array textArray(Connection connection, Collection<String> values) throws SQLException {
+        return connection.createArrayOf("text", values.toArray());
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize user JSON column", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserImportReport;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserImportRow;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bulk user import through a per-transaction staging table: rows are streamed in with COPY,
+ * checked with a few set-based statements that mark each bad row with its error, and the rest is
+ * merged into {@code users} and {@code user_functions} with INSERT ... SELECT. Every method must
+ * run in the same transaction, which also drops the staging table on commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserImportStaging {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String FUNCTION_NAMES = Arrays.stream(UserFunction.values())
+            .map(function -> "'" + function.name() + "'")
+            .collect(Collectors.joining(", ", "ARRAY[", "]::text[]"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SsnBlindIndex ssnBlindIndex;
+    private final AuditorAware<UUID> auditorProvider;
+
+    public void create() {
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE user_import (
+                    row_no BIGINT PRIMARY KEY,
+                    id UUID NOT NULL DEFAULT gen_random_uuid(),
+                    first_name TEXT,
+                    last_name TEXT,
+                    username TEXT,
+                    email TEXT,
+                    date_of_birth TEXT,
+                    ssn TEXT,
+                    ssn_hash TEXT,
+                    ssn_last4 TEXT,
+                    company_id TEXT,
+                    functions TEXT,
+                    error TEXT
+                ) ON COMMIT DROP
+                """);
+    }
+
+    /**
+     * Streams {@code rows} into the staging table, flushing every {@value #COPY_BUFFER_SIZE}
+     * characters, so memory stays flat whatever the input size. Returns the number of rows staged.
+     */
+    public long copy(Iterator<UserImportRow> rows) {
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("""
+                    COPY user_import (row_no, first_name, last_name, username, email, date_of_birth,
+                                      ssn, ssn_hash, ssn_last4, company_id, functions)
+                    FROM STDIN (FORMAT csv)
+                    """);
+            try {
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+                long rowNo = 0;
+                while (rows.hasNext()) {
+                    appendRow(buffer, ++rowNo, rows.next());
+                    if (buffer.length() >= COPY_BUFFER_SIZE) {
+                        write(copyIn, buffer);
+                    }
+                }
+                write(copyIn, buffer);
+                copyIn.endCopy();
+                return rowNo;
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+        jdbcTemplate.execute("ANALYZE user_import");
+        return copied == null ? 0 : copied;
+    }
+
+    /**
+     * Marks every staged row that cannot be inserted. The first failing check wins, so each
+     * rejected row carries exactly one error.
+     */
+    public void validate() {
+        jdbcTemplate.update("""
+                UPDATE user_import s SET error = CASE
+                    WHEN coalesce(btrim(first_name), '') = '' THEN 'firstName: must not be blank'
+                    WHEN length(first_name) > 100 THEN 'firstName: must be at most 100 characters'
+                    WHEN coalesce(btrim(last_name), '') = '' THEN 'lastName: must not be blank'
+                    WHEN length(last_name) > 100 THEN 'lastName: must be at most 100 characters'
+                    WHEN coalesce(btrim(username), '') = '' THEN 'username: must not be blank'
+                    WHEN length(username) > 50 THEN 'username: must be at most 50 characters'
+                    WHEN coalesce(btrim(email), '') = '' THEN 'email: must not be blank'
+                    WHEN length(email) > 255 THEN 'email: must be at most 255 characters'
+                    WHEN coalesce(btrim(ssn), '') = '' THEN 'ssn: must not be blank'
+                    WHEN length(ssn) > 11 THEN 'ssn: must be at most 11 characters'
+                    WHEN ssn_hash IS NULL THEN 'ssn: must contain digits'
+                    WHEN date_of_birth IS NULL OR NOT pg_input_is_valid(date_of_birth, 'date')
+                        THEN 'dateOfBirth: must be a date (yyyy-mm-dd)'
+                    WHEN company_id IS NULL OR NOT pg_input_is_valid(company_id, 'uuid')
+                        THEN 'companyId: must be a UUID'
+                    WHEN NOT EXISTS (SELECT 1 FROM companies c WHERE c.id = s.company_id::uuid)
+                        THEN 'companyId: company not found'
+                    WHEN functions IS NOT NULL AND NOT string_to_array(functions, ';') <@ %s
+                        THEN 'functions: unknown function'
+                    WHEN EXISTS (SELECT 1 FROM users u WHERE u.username = s.username) THEN 'username: already exists'
+                    WHEN EXISTS (SELECT 1 FROM users u WHERE u.email = s.email) THEN 'email: already exists'
+                    WHEN EXISTS (SELECT 1 FROM users u WHERE u.ssn_hash = s.ssn_hash) THEN 'ssn: already exists'
+                END
+                """.formatted(FUNCTION_NAMES));
+
+        // Within the file the first occurrence wins
+        rejectDuplicates("username", "username");
+        rejectDuplicates("email", "email");
+        rejectDuplicates("ssn_hash", "ssn");
+    }
+
+    private void rejectDuplicates(String column, String field) {
+        jdbcTemplate.update("""
+                UPDATE user_import s SET error = '%2$s: duplicated in file'
+                FROM (
+                    SELECT row_no, row_number() OVER (PARTITION BY %1$s ORDER BY row_no) AS occurrence
+                    FROM user_import
+                    WHERE error IS NULL
+                ) d
+                WHERE d.row_no = s.row_no AND d.occurrence > 1
+                """.formatted(column, field));
+    }
+
+    /**
+     * Inserts all valid rows and returns how many were inserted. The audit columns are filled from
+     * the same {@link AuditorAware} JPA auditing uses. Rows that lost a race against a
+     * concurrent insert of the same username, email or SSN are marked as rejected instead.
+     */
+    public long merge(boolean functionMask) {
+        UUID auditor = auditorProvider.getCurrentAuditor().orElse(null);
+        String functionMaskValue = functionMask
+                ? """
+                  (SELECT coalesce(bit_or((1 << (array_position(%s, f) - 1))::smallint), 0)
+                   FROM unnest(string_to_array(s.functions, ';')) f)
+                  """.formatted(FUNCTION_NAMES)
+                : "NULL";
+        jdbcTemplate.update("""
+                WITH inserted AS (
+                    INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, ssn_hash,
+                                       ssn_last4, company_id, status, function_mask, created_by, updated_by)
+                    SELECT s.id, s.first_name, s.last_name, s.username, s.email, s.date_of_birth::date, s.ssn,
+                           s.ssn_hash, s.ssn_last4, s.company_id::uuid, 'ACTIVE', %s, ?::uuid, ?::uuid
+                    FROM user_import s
+                    WHERE s.error IS NULL
+                    ON CONFLICT DO NOTHING
+                    RETURNING id
+                )
+                UPDATE user_import s SET error = 'conflicts with a user created during the import'
+                WHERE s.error IS NULL AND NOT EXISTS (SELECT 1 FROM inserted i WHERE i.id = s.id)
+                """.formatted(functionMaskValue), auditor, auditor);
+
+        if (!functionMask) {
+            jdbcTemplate.update("""
+                    INSERT INTO user_functions (id, function, user_id)
+                    SELECT gen_random_uuid(), f, id
+                    FROM (SELECT DISTINCT unnest(string_to_array(s.functions, ';')) f, s.id
+                          FROM user_import s
+                          WHERE s.error IS NULL) d
+                    """);
+        }
+
+        Long imported = jdbcTemplate.queryForObject("SELECT count(*) FROM user_import WHERE error IS NULL", Long.class);
+        return imported == null ? 0 : imported;
+    }
+
+    public List<UserImportReport.Reject> rejects(int limit) {
+        return jdbcTemplate.query(
+                "SELECT row_no, error FROM user_import WHERE error IS NOT NULL ORDER BY row_no LIMIT ?",
+                (row, rowNum) -> new UserImportReport.Reject(row.getLong("row_no"), row.getString("error")),
+                limit);
+    }
+
+    private void appendRow(StringBuilder buffer, long rowNo, UserImportRow row) {
+        String ssn = row.getSsn();
+        boolean hashable = ssn != null && !SsnBlindIndex.digitsOf(ssn).isEmpty();
+        buffer.append(rowNo);
+        appendValue(buffer, row.getFirstName());
+        appendValue(buffer, row.getLastName());
+        appendValue(buffer, row.getUsername());
+        appendValue(buffer, row.getEmail());
+        appendValue(buffer, row.getDateOfBirth());
+        appendValue(buffer, ssn);
+        appendValue(buffer, hashable ? ssnBlindIndex.hash(ssn) : null);
+        appendValue(buffer, hashable ? SsnBlindIndex.lastFour(ssn) : null);
+        appendValue(buffer, row.getCompanyId());
+        appendValue(buffer, row.getFunctions() == null || row.getFunctions().isEmpty()
+                ? null
+                : String.join(";", row.getFunctions()));
+        buffer.append('\n');
+    }
+
+    // COPY csv reads an unquoted empty field as NULL and a quoted one as an empty string
+    private static void appendValue(StringBuilder buffer, String value) {
+        buffer.append(',');
+        if (value != null) {
+            buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
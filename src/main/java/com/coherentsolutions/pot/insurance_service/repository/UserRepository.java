@@ -1,12 +1,36 @@
 package com.coherentsolutions.pot.insurance_service.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.coherentsolutions.pot.insurance_service.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User>{ 
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
 
+    // Matches against the generated, GIN-indexed search_vector; names weigh more than username and email
+    @Query(value = """
+            SELECT u.* FROM users u, to_tsquery('simple', :query) q
+            WHERE u.search_vector @@ q
+            ORDER BY ts_rank(u.search_vector, q) DESC, u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<User> searchByText(@Param("query") String tsQuery, @Param("limit") int limit);
+
+    boolean existsBySsnHash(String ssnHash);
+
+    // Loads the functions in the same statement, so the user can be mapped outside a transaction
+    @EntityGraph(attributePaths = "functions")
+    Optional<User> findWithFunctionsById(UUID id);
+
+    @EntityGraph(attributePaths = "functions")
+    List<User> findWithFunctionsByIdIn(Collection<UUID> ids);
 }
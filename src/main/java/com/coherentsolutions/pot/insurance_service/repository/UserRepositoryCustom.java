@@ -0,0 +1,24 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.model.User;
+
+public interface UserRepositoryCustom {
+
+    Slice<User> findSlice(Specification<User> specification, Pageable pageable);
+
+    Page<UserDto> findDtoPage(Specification<User> specification, Pageable pageable);
+
+    /**
+     * Streams every matching user in id order, in chunks, from a read-only server-side cursor.
+     */
+    void export(Specification<User> specification, Consumer<List<UserDto>> chunkConsumer);
+}
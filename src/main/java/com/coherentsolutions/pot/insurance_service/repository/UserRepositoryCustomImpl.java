@@ -0,0 +1,114 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.hibernate.SessionFactory;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
+import com.coherentsolutions.pot.insurance_service.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final List<String> DTO_ATTRIBUTES = List.of(
+            "id", "firstName", "lastName", "username", "email", "dateOfBirth", "ssn", "addressData",
+            "phoneData", "status", "companyId", "functionMask", "version");
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Slice<User> findSlice(Specification<User> specification, Pageable pageable) {
+        return SpecificationSlices.findSlice(entityManager, User.class, specification, pageable);
+    }
+
+    @Override
+    public Page<UserDto> findDtoPage(Specification<User> specification, Pageable pageable) {
+        Page<UserDto> users = SpecificationProjections
+                .findPage(entityManager, User.class, specification, pageable, DTO_ATTRIBUTES)
+                .map(UserRepositoryCustomImpl::toDto);
+        loadTableFunctions(users.getContent(), hql -> entityManager.createQuery(hql, Tuple.class));
+        return users;
+    }
+
+    @Override
+    public void export(Specification<User> specification, Consumer<List<UserDto>> chunkConsumer) {
+        SpecificationProjections.scroll(entityManagerFactory.unwrap(SessionFactory.class), User.class,
+                specification, DTO_ATTRIBUTES, EXPORT_FETCH_SIZE, (session, rows) -> {
+                    List<UserDto> users = rows.stream().map(UserRepositoryCustomImpl::toDto).toList();
+                    loadTableFunctions(users, hql -> session.createQuery(hql, Tuple.class));
+                    chunkConsumer.accept(users);
+                });
+    }
+
+    // Users without a function mask keep their functions in user_functions: one query per page or chunk
+    private static void loadTableFunctions(List<UserDto> users, Function<String, TypedQuery<Tuple>> queryFactory) {
+        Map<UUID, UserDto> byId = new HashMap<>();
+        users.stream()
+                .filter(user -> user.getFunctions() == null)
+                .forEach(user -> {
+                    user.setFunctions(EnumSet.noneOf(UserFunction.class));
+                    byId.put(user.getId(), user);
+                });
+        if (byId.isEmpty()) {
+            return;
+        }
+
+        queryFactory.apply("""
+                        SELECT a.user.id AS userId, a.function AS assignedFunction
+                        FROM UserFunctionAssignment a
+                        WHERE a.user.id IN :ids
+                        """)
+                .setParameter("ids", byId.keySet())
+                .getResultList()
+                .forEach(row -> byId.get(row.get("userId", UUID.class))
+                        .getFunctions().add(row.get("assignedFunction", UserFunction.class)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UserDto toDto(Tuple tuple) {
+        Set<UserFunction> functionMask = tuple.get("functionMask", EnumSet.class);
+        return UserDto.builder()
+                .id(tuple.get("id", UUID.class))
+                .firstName(tuple.get("firstName", String.class))
+                .lastName(tuple.get("lastName", String.class))
+                .username(tuple.get("username", String.class))
+                .email(tuple.get("email", String.class))
+                .dateOfBirth(tuple.get("dateOfBirth", LocalDate.class))
+                .ssn(tuple.get("ssn", String.class))
+                .addressData((List<Address>) tuple.get("addressData"))
+                .phoneData((List<Phone>) tuple.get("phoneData"))
+                .status(tuple.get("status", UserStatus.class))
+                .companyId(tuple.get("companyId", UUID.class))
+                .functions(functionMask)
+                .version(tuple.get("version", Long.class))
+                .build();
+    }
+}
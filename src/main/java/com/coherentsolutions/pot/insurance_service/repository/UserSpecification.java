@@ -2,29 +2,46 @@ package com.coherentsolutions.pot.insurance_service.repository;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import static org.springframework.util.StringUtils.hasText;
 
 import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.enums.FunctionMatch;
+import com.coherentsolutions.pot.insurance_service.enums.FunctionStorage;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
 import com.coherentsolutions.pot.insurance_service.model.User;
+import com.coherentsolutions.pot.insurance_service.model.UserFunctionAssignment;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
 public class UserSpecification {
 
-    public static Specification<User> withFilters(UserFilter filter) {
+    public static Specification<User> withFilters(UserFilter filter, SsnBlindIndex ssnBlindIndex) {
+        return withFilters(filter, ssnBlindIndex, FunctionStorage.TABLE);
+    }
+
+    public static Specification<User> withFilters(UserFilter filter, SsnBlindIndex ssnBlindIndex,
+                                                  FunctionStorage functionStorage) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = Stream.of(
               namePredicate(filter, root, criteriaBuilder),
               emailPredicate(filter, root, criteriaBuilder),
               dateOfBirthPredicate(filter, root, criteriaBuilder),
               statusPredicate(filter, root, criteriaBuilder),
-              ssnPredicate(filter, root, criteriaBuilder),
-              functionPredicate(filter, root, criteriaBuilder))
+              ssnPredicate(filter, ssnBlindIndex, root, criteriaBuilder),
+              functionPredicate(filter, functionStorage, root, query, criteriaBuilder))
           .filter(Objects::nonNull)
           .toList();
 
@@ -36,7 +53,8 @@ public class UserSpecification {
 
     private static Predicate namePredicate(UserFilter filter, Root<User> root, CriteriaBuilder criteriaBuilder) {
         if (hasText(filter.getName())) {
-            String pattern = "%" + filter.getName().toLowerCase() + "%";
+            // Each side hits its own trigram index; Postgres combines them with a BitmapOr
+            String pattern = SearchPatterns.containsPattern(filter.getName());
             Predicate firstNameLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), pattern);
             Predicate lastNameLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), pattern);
             return criteriaBuilder.or(firstNameLike, lastNameLike);
@@ -47,7 +65,7 @@ public class UserSpecification {
     private static Predicate emailPredicate(UserFilter filter, Root<User> root, CriteriaBuilder criteriaBuilder) {
         return hasText(filter.getEmail())
                 ? criteriaBuilder.like(criteriaBuilder.lower(root.get("email")),
-                        "%" + filter.getEmail().toLowerCase() + "%")
+                        SearchPatterns.containsPattern(filter.getEmail()))
                 : null;
     }
 
@@ -63,18 +81,70 @@ public class UserSpecification {
                 : null;
     }
 
-    private static Predicate ssnPredicate(UserFilter filter, Root<User> root, CriteriaBuilder criteriaBuilder) {
-        return hasText(filter.getSsn())
-                ? criteriaBuilder.like(criteriaBuilder.lower(root.get("ssn")),
-                        "%" + filter.getSsn().toLowerCase() + "%")
-                : null;
+    private static Predicate ssnPredicate(UserFilter filter, SsnBlindIndex ssnBlindIndex, Root<User> root,
+                                          CriteriaBuilder criteriaBuilder) {
+        if (!hasText(filter.getSsn())) {
+            return null;
+        }
+        // Both lookups are B-tree probes; the raw ssn column is never compared
+        String digits = SsnBlindIndex.digitsOf(filter.getSsn());
+        if (digits.length() == 4) {
+            return criteriaBuilder.equal(root.get("ssnLast4"), digits);
+        }
+        if (digits.length() == 9) {
+            return criteriaBuilder.equal(root.get("ssnHash"), ssnBlindIndex.hash(digits));
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "SSN filter must be the full SSN or its last four digits");
     }
 
-    private static Predicate functionPredicate(UserFilter filter, Root<User> root, CriteriaBuilder criteriaBuilder) {
-        if (filter.getFunctions() != null && !filter.getFunctions().isEmpty()) {
-            var join = root.join("functions");
-            return join.get("function").in(filter.getFunctions());
+    private static Predicate functionPredicate(UserFilter filter, FunctionStorage functionStorage, Root<User> root,
+                                               CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Set<UserFunction> functions = filter.getFunctions();
+        if (functions == null || functions.isEmpty()) {
+            return null;
         }
-        return null;
+        if (functionStorage == FunctionStorage.BITMASK) {
+            // A NULL mask means the user's functions are still in user_functions: not migrated yet,
+            // or written by a node still running with TABLE storage
+            return criteriaBuilder.or(
+                    maskPredicate(functions, filter.getFunctionMatch(), root, criteriaBuilder),
+                    criteriaBuilder.and(
+                            criteriaBuilder.isNull(root.get("functionMask")),
+                            tablePredicate(functions, filter.getFunctionMatch(), root, query, criteriaBuilder)));
+        }
+        return tablePredicate(functions, filter.getFunctionMatch(), root, query, criteriaBuilder);
+    }
+
+    private static Predicate tablePredicate(Set<UserFunction> functions, FunctionMatch match, Root<User> root,
+                                            CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        // Semi-joins keep one row per user, so pages and counts stay exact without DISTINCT
+        if (match == FunctionMatch.ALL) {
+            return criteriaBuilder.and(functions.stream()
+                    .map(function -> hasFunction(Set.of(function), root, query, criteriaBuilder))
+                    .toArray(Predicate[]::new));
+        }
+        return hasFunction(functions, root, query, criteriaBuilder);
+    }
+
+    // Bitwise AND on users.function_mask; int2and is the function behind Postgres' smallint & operator
+    private static Predicate maskPredicate(Set<UserFunction> functions, FunctionMatch match, Root<User> root,
+                                           CriteriaBuilder criteriaBuilder) {
+        short bits = UserFunctionMask.toMask(functions);
+        Expression<Short> matched = criteriaBuilder.function("int2and", Short.class,
+                root.get("functionMask"), criteriaBuilder.literal(bits));
+        return match == FunctionMatch.ALL
+                ? criteriaBuilder.equal(matched, bits)
+                : criteriaBuilder.notEqual(matched, (short) 0);
+    }
+
+    private static Predicate hasFunction(Set<UserFunction> functions, Root<User> root, CriteriaQuery<?> query,
+                                         CriteriaBuilder criteriaBuilder) {
+        Subquery<Integer> assignments = query.subquery(Integer.class);
+        Root<UserFunctionAssignment> assignment = assignments.from(UserFunctionAssignment.class);
+        assignments.select(criteriaBuilder.literal(1))
+                .where(criteriaBuilder.equal(assignment.get("user").get("id"), root.get("id")),
+                        assignment.get("function").in(functions));
+        return criteriaBuilder.exists(assignments);
     }
 }
@@ -0,0 +1,299 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import com.coherentsolutions.pot.insurance_service.dto.analytics.SnapshotExportReport;
+import com.coherentsolutions.pot.insurance_service.dto.analytics.SnapshotExportReport.SnapshotFile;
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes full {@code companies} and {@code users} snapshots to Parquet files for analytics. Rows are
+ * streamed from a server-side cursor straight into the column writers, which flush a row group
+ * whenever it reaches the configured size, so memory stays bounded by one row group per file.
+ * SSNs and their hashes are deliberately left out.
+ */
+@Service
+public class AnalyticsSnapshotExport {
+    private static final int FETCH_SIZE = 5000;
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final LocalDateTime LOCAL_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final TypeReference<List<Address>> ADDRESSES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Phone>> PHONES = new TypeReference<>() {
+    };
+
+    private static final GroupType ADDRESS_DATA = list("address_data", Types.requiredGroup()
+            .addFields(text("country"), text("city"), text("state"), text("street"), text("building"), text("room"))
+            .named("element"));
+    private static final GroupType PHONE_DATA = list("phone_data", Types.requiredGroup()
+            .addFields(text("code"), text("number"))
+            .named("element"));
+
+    private static final MessageType COMPANY_SCHEMA = Types.buildMessage()
+            .addFields(requiredText("id"), requiredText("name"), requiredText("country_code"),
+                    ADDRESS_DATA, PHONE_DATA, text("email"), text("website"), text("status"),
+                    timestamp("created_at"), timestamp("updated_at"))
+            .named("company");
+
+    private static final MessageType USER_SCHEMA = Types.buildMessage()
+            .addFields(requiredText("id"), requiredText("first_name"), requiredText("last_name"),
+                    requiredText("username"), requiredText("email"),
+                    Types.required(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.dateType()).named("date_of_birth"),
+                    text("status"), requiredText("company_id"), text("company_country_code"),
+                    list("functions", Types.required(PrimitiveTypeName.BINARY)
+                            .as(LogicalTypeAnnotation.stringType()).named("element")),
+                    ADDRESS_DATA, PHONE_DATA, timestamp("created_at"), timestamp("updated_at"))
+            .named("user");
+
+    private final JdbcTemplate cursorTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path exportDir;
+    private final DataSize rowGroupSize;
+
+    public AnalyticsSnapshotExport(JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${insurance.analytics.export-dir}") Path exportDir,
+                                   @Value("${insurance.analytics.row-group-size:128MB}") DataSize rowGroupSize) {
+        // The driver only uses a cursor with a fetch size inside a transaction
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.objectMapper = objectMapper;
+        this.exportDir = exportDir;
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    /**
+     * Exports both tables as of one database snapshot and returns where the files were written.
+     * Each file is written under a temporary name and moved into place once complete.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SnapshotExportReport export() {
+        String timestamp = FILE_TIMESTAMP.format(Instant.now());
+        return SnapshotExportReport.builder()
+                .companies(write("companies-" + timestamp, COMPANY_SCHEMA, """
+                        SELECT id, name, country_code, address_data, phone_data, email, website, status,
+                               created_at, updated_at
+                        FROM companies
+                        """, this::companyRow))
+                .users(write("users-" + timestamp, USER_SCHEMA, """
+                        SELECT u.id, u.first_name, u.last_name, u.username, u.email, u.date_of_birth, u.status,
+                               u.company_id, c.country_code AS company_country_code, u.function_mask,
+                               CASE WHEN u.function_mask IS NULL
+                                    THEN ARRAY(SELECT f.function FROM user_functions f WHERE f.user_id = u.id)
+                               END AS functions,
+                               u.address_data, u.phone_data, u.created_at, u.updated_at
+                        FROM users u
+                        LEFT JOIN companies c ON c.id = u.company_id
+                        """, this::userRow))
+                .build();
+    }
+
+    private SnapshotFile write(String name, MessageType schema, String sql, BiConsumer<ResultSet, Group> mapper) {
+        Path target = exportDir.resolve(name + ".parquet");
+        Path partial = exportDir.resolve("." + name + ".parquet.tmp");
+        SimpleGroupFactory groups = new SimpleGroupFactory(schema);
+        long[] rows = {0};
+
+        try {
+            Files.createDirectories(exportDir);
+            try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(partial))
+                    .withType(schema)
+                    .withCompressionCodec(CompressionCodecName.SNAPPY)
+                    .withRowGroupSize(rowGroupSize.toBytes())
+                    .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                    .build()) {
+                cursorTemplate.query(sql, resultSet -> {
+                    Group group = groups.newGroup();
+                    mapper.accept(resultSet, group);
+                    try {
+                        writer.write(group);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write " + target, e);
+        } finally {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Only left behind when the export itself already failed
+            }
+        }
+        return new SnapshotFile(target.toAbsolutePath().toString(), rows[0]);
+    }
+
+    private void companyRow(ResultSet resultSet, Group group) {
+        try {
+            group.append("id", resultSet.getString("id"));
+            group.append("name", resultSet.getString("name"));
+            group.append("country_code", resultSet.getString("country_code"));
+            appendAddresses(group, resultSet.getString("address_data"));
+            appendPhones(group, resultSet.getString("phone_data"));
+            appendText(group, "email", resultSet.getString("email"));
+            appendText(group, "website", resultSet.getString("website"));
+            appendText(group, "status", resultSet.getString("status"));
+            appendTimestamp(group, "created_at", resultSet.getObject("created_at", LocalDateTime.class));
+            appendTimestamp(group, "updated_at", resultSet.getObject("updated_at", LocalDateTime.class));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read company row", e);
+        }
+    }
+
+    private void userRow(ResultSet resultSet, Group group) {
+        try {
+            group.append("id", resultSet.getString("id"));
+            group.append("first_name", resultSet.getString("first_name"));
+            group.append("last_name", resultSet.getString("last_name"));
+            group.append("username", resultSet.getString("username"));
+            group.append("email", resultSet.getString("email"));
+            Date dateOfBirth = resultSet.getDate("date_of_birth");
+            group.append("date_of_birth", (int) dateOfBirth.toLocalDate().toEpochDay());
+            appendText(group, "status", resultSet.getString("status"));
+            group.append("company_id", resultSet.getString("company_id"));
+            // users.company_id has no foreign key, so a user may point at a company that no longer exists
+            appendText(group, "company_country_code", resultSet.getString("company_country_code"));
+            appendFunctions(group, resultSet);
+            appendAddresses(group, resultSet.getString("address_data"));
+            appendPhones(group, resultSet.getString("phone_data"));
+            appendTimestamp(group, "created_at", resultSet.getObject("created_at", LocalDateTime.class));
+            appendTimestamp(group, "updated_at", resultSet.getObject("updated_at", LocalDateTime.class));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read user row", e);
+        }
+    }
+
+    // Users with a function mask carry their functions in it; the rest get them from user_functions
+    private static void appendFunctions(Group group, ResultSet resultSet) throws SQLException {
+        Group functions = group.addGroup("functions");
+        short mask = resultSet.getShort("function_mask");
+        if (!resultSet.wasNull()) {
+            UserFunctionMask.fromMask(mask).forEach(function -> functions.addGroup("list").append("element", function.name()));
+            return;
+        }
+        Array assigned = resultSet.getArray("functions");
+        for (Object function : (Object[]) assigned.getArray()) {
+            functions.addGroup("list").append("element", function.toString());
+        }
+    }
+
+    private void appendAddresses(Group group, String json) {
+        List<Address> addresses = read(json, ADDRESSES);
+        if (addresses == null) {
+            return;
+        }
+        Group list = group.addGroup("address_data");
+        for (Address address : addresses) {
+            Group element = list.addGroup("list").addGroup("element");
+            appendText(element, "country", address.getCountry());
+            appendText(element, "city", address.getCity());
+            appendText(element, "state", address.getState());
+            appendText(element, "street", address.getStreet());
+            appendText(element, "building", address.getBuilding());
+            appendText(element, "room", address.getRoom());
+        }
+    }
+
+    private void appendPhones(Group group, String json) {
+        List<Phone> phones = read(json, PHONES);
+        if (phones == null) {
+            return;
+        }
+        Group list = group.addGroup("phone_data");
+        for (Phone phone : phones) {
+            Group element = list.addGroup("list").addGroup("element");
+            appendText(element, "code", phone.getCode());
+            appendText(element, "number", phone.getNumber());
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Optional fields are simply left unset when null
+    private static void appendText(Group group, String field, String value) {
+        if (value != null) {
+            group.append(field, value);
+        }
+    }
+
+    private static void appendTimestamp(Group group, String field, LocalDateTime value) {
+        if (value != null) {
+            group.append(field, ChronoUnit.MICROS.between(LOCAL_EPOCH, value));
+        }
+    }
+
+    private static Type text(String name) {
+        return Types.optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(name);
+    }
+
+    private static Type requiredText(String name) {
+        return Types.required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(name);
+    }
+
+    // The columns are TIMESTAMP without time zone, so they are written as local (not UTC-adjusted) times
+    private static Type timestamp(String name) {
+        return Types.optional(PrimitiveTypeName.INT64)
+                .as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS))
+                .named(name);
+    }
+
+    // Standard three-level LIST layout, which Spark, DuckDB and pandas all read as a nested list
+    private static GroupType list(String name, Type element) {
+        return Types.optionalGroup()
+                .as(LogicalTypeAnnotation.listType())
+                .addField(Types.repeatedGroup().addField(element).named("list"))
+                .named(name);
+    }
+}
@@ -1,40 +1,130 @@
 package com.coherentsolutions.pot.insurance_service.service;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.coherentsolutions.pot.insurance_service.cache.CacheInvalidationBus;
+import com.coherentsolutions.pot.insurance_service.cache.CompanyCache;
+import com.coherentsolutions.pot.insurance_service.cache.QueryResultCache;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
+import com.coherentsolutions.pot.insurance_service.dto.page.CursorPage;
+import com.coherentsolutions.pot.insurance_service.dto.page.SlicePage;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.enums.CountMode;
 import com.coherentsolutions.pot.insurance_service.enums.CompanyStatus;
+import com.coherentsolutions.pot.insurance_service.enums.ExportFormat;
 import com.coherentsolutions.pot.insurance_service.mapper.CompanyMapper;
+import com.coherentsolutions.pot.insurance_service.model.Address;
 import com.coherentsolutions.pot.insurance_service.model.Company;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
 import com.coherentsolutions.pot.insurance_service.repository.CompanyRepository;
 import com.coherentsolutions.pot.insurance_service.repository.CompanySpecification;
+import com.coherentsolutions.pot.insurance_service.repository.KeysetPagination;
+import com.coherentsolutions.pot.insurance_service.repository.RowCountEstimator;
+import com.coherentsolutions.pot.insurance_service.util.ETags;
+import com.coherentsolutions.pot.insurance_service.util.ExportWriter;
+import com.coherentsolutions.pot.insurance_service.util.MergePatch;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class CompanyManagementService {
+    // Properties backed by non-null columns with a (property, id) index
+    private static final Set<String> CURSOR_SORTABLE = Set.of("name", "countryCode", "createdAt");
+    private static final List<String> EXPORT_COLUMNS = List.of(
+            "id", "name", "countryCode", "addressData", "phoneData", "email", "website", "status",
+            "createdBy", "createdAt", "updatedBy", "updatedAt");
+    private static final TypeReference<List<Address>> ADDRESSES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Phone>> PHONES = new TypeReference<>() {
+    };
+
     private final CompanyRepository companyRepository;
     private final CompanyMapper companyMapper;
+    private final RowCountEstimator rowCountEstimator;
+    private final ExportWriter exportWriter;
+    private final ObjectMapper objectMapper;
+    private final CompanyCache companyCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final QueryResultCache queryResultCache;
+    private final Validator validator;
 
+    // List reads run in the result cache's transaction on a miss; a hit takes no connection
     public Page<CompanyDto> getCompaniesWithFilters(CompanyFilter filter, Pageable pageable) {
-        // Use JPA Specification to filter at database level with pagination
-        Page<Company> companies = companyRepository.findAll(CompanySpecification.withFilters(filter), pageable);
-        return companies.map(companyMapper::toCompanyDto);
+        CompanyFilter normalized = filter.normalized();
+        // Select straight into DTOs: list rows are never modified, so they skip the persistence context
+        return queryResultCache.get(CacheRegion.COMPANY, new PageQuery(normalized, pageable),
+                () -> companyRepository.findDtoPage(CompanySpecification.withFilters(normalized), pageable));
+    }
+
+    public SlicePage<CompanyDto> getCompaniesSlice(CompanyFilter filter, Pageable pageable, CountMode countMode) {
+        CompanyFilter normalized = filter.normalized();
+        return queryResultCache.get(CacheRegion.COMPANY, new SliceQuery(normalized, pageable, countMode), () -> {
+            // Skip the count query entirely; the total, if requested, is estimated or exact on demand
+            Specification<Company> specification = CompanySpecification.withFilters(normalized);
+            Slice<Company> companies = companyRepository.findSlice(specification, pageable);
+
+            Long total = switch (countMode) {
+                case NONE -> null;
+                case EXACT -> companyRepository.count(specification);
+                case ESTIMATE -> rowCountEstimator.estimate("companies", normalized, new CompanyFilter().equals(normalized),
+                        () -> companyRepository.count(specification));
+            };
+            return SlicePage.of(companies.map(companyMapper::toCompanyDto), total);
+        });
+    }
+
+    public CursorPage<CompanyDto> getCompaniesByCursor(CompanyFilter filter, String after, String before, Pageable pageable) {
+        CompanyFilter normalized = filter.normalized();
+        return queryResultCache.get(CacheRegion.COMPANY, new CursorQuery(normalized, after, before, pageable), () -> {
+            // Seek past the cursor instead of using OFFSET, so deep pages cost the same as the first one
+            CursorPage<Company> companies = KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(normalized), after, before, pageable, CURSOR_SORTABLE);
+            return companies.map(companyMapper::toCompanyDto);
+        });
+    }
+
+    /**
+     * Streams every company matching the filter, ignoring paging, from a read-only server-side cursor.
+     */
+    public StreamingResponseBody exportCompanies(CompanyFilter filter, ExportFormat format) {
+        Specification<Company> specification = CompanySpecification.withFilters(filter);
+        return exportWriter.stream(format, CompanyDto.class, EXPORT_COLUMNS,
+                chunks -> companyRepository.export(specification, chunks));
     }
 
     public CompanyDto updateCompany(UUID id, CompanyDto request) {
+        return updateCompany(id, request, null);
+    }
+
+    /**
+     * @param expectedVersions versions from the client's If-Match header, or {@code null} to overwrite
+     *                         whatever is current
+     */
+    @Transactional
+    public CompanyDto updateCompany(UUID id, CompanyDto request, Set<Long> expectedVersions) {
         Company company = companyRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Company not found"));
+        ETags.checkPrecondition(expectedVersions, company.getVersion());
 
         // Update basic fields using higher-order function
         setIfNotNull(request.getName(), company::setName);
@@ -54,23 +144,55 @@ public class CompanyManagementService {
 
         company.setUpdatedAt(Instant.now());
         Company updated = companyRepository.save(company);
+        // Flush so the returned version, and with it the ETag, reflects this update
+        companyRepository.flush();
+        cacheInvalidationBus.publish(CacheRegion.COMPANY, id);
         return companyMapper.toCompanyDto(updated);
     }
 
+    /**
+     * Applies a JSON Merge Patch. Only members present in the patch are set, and companies are
+     * updated dynamically, so the UPDATE covers just the columns whose values actually changed.
+     */
+    @Transactional
+    public CompanyDto patchCompany(UUID id, JsonNode patch, Set<Long> expectedVersions) {
+        Company company = companyRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Company not found"));
+        ETags.checkPrecondition(expectedVersions, company.getVersion());
+
+        MergePatch.of(patch, objectMapper)
+                .validatedAgainst(Company.class, validator)
+                .required("name", String.class, company::setName)
+                .required("countryCode", String.class, company::setCountryCode)
+                .optional("email", String.class, company::setEmail)
+                .optional("website", String.class, company::setWebsite)
+                .required("status", CompanyStatus.class, company::setStatus)
+                .optional("addressData", ADDRESSES, company::setAddressData)
+                .optional("phoneData", PHONES, company::setPhoneData)
+                .apply();
+
+        // Flush so the response carries the audit columns and version of this update
+        Company patched = companyRepository.saveAndFlush(company);
+        cacheInvalidationBus.publish(CacheRegion.COMPANY, id);
+        return companyMapper.toCompanyDto(patched);
+    }
+
+    @Transactional
     public CompanyDto createCompany(CompanyDto companyDto) {
         Company company = companyMapper.toEntity(companyDto);
         company.setAddressData(companyDto.getAddressData());
         company.setPhoneData(companyDto.getPhoneData());
         company.setStatus(CompanyStatus.ACTIVE);
         companyRepository.save(company);
+        cacheInvalidationBus.publish(CacheRegion.COMPANY, company.getId());
 
         return companyMapper.toCompanyDto(company);
     }
 
+    // No surrounding transaction: a cache hit must not take a connection from the pool
     public CompanyDto getCompanyDetails(UUID id) {
-        Company company = companyRepository.findById(id)
+        return companyCache.get(id, key -> companyRepository.findById(key).map(companyMapper::toCompanyDto))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Company not found"));
-        return companyMapper.toCompanyDto(company);
     }
 
     private <T> void setIfNotNull(T value, Consumer<T> setFunction) {
@@ -78,4 +200,13 @@ public class CompanyManagementService {
             setFunction.accept(value);
         }
     }
+
+    private record PageQuery(CompanyFilter filter, Pageable pageable) {
+    }
+
+    private record SliceQuery(CompanyFilter filter, Pageable pageable, CountMode countMode) {
+    }
+
+    private record CursorQuery(CompanyFilter filter, String after, String before, Pageable pageable) {
+    }
 }
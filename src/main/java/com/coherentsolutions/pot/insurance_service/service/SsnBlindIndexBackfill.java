@@ -0,0 +1,123 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills {@code users.ssn_hash} for rows written before the blind index existed. The HMAC key only
+ * lives in the application, so this cannot be done by the Liquibase migration itself.
+ *
+ * <p>Only one node backfills: the others skip it while a session-level advisory lock is held, and
+ * once it is done later startups find nothing left to hash. The hash covers the SSN digits only,
+ * while {@code users.ssn} is unique as written, so "123-45-6789" and "123456789" may both exist.
+ * Such rows would violate {@code uq_users_ssn_hash}; they are reported and left without a hash
+ * until the duplicates are resolved.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "insurance.security.ssn-backfill-enabled", havingValue = "true", matchIfMissing = true)
+public class SsnBlindIndexBackfill implements ApplicationRunner {
+    private static final int BATCH_SIZE = 1000;
+    private static final int REPORTED_COLLISIONS = 100;
+    // "SSNHASH"; shared by every node running the backfill
+    private static final long ADVISORY_LOCK_KEY = 0x53534E48415348L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SsnBlindIndex ssnBlindIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // The lock belongs to this connection's session; the backfill itself uses other connections
+        boolean locked = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                return false;
+            }
+            try {
+                backfill();
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+            return true;
+        }));
+        if (!locked) {
+            log.info("Another node is backfilling the SSN blind index, skipping");
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    void backfill() {
+        Set<UUID> collisions = findCollisions();
+        if (!collisions.isEmpty()) {
+            log.error("{} users share their SSN digits with another user and were left without an SSN blind index; "
+                    + "resolve the duplicates to make them searchable by SSN. First ids: {}",
+                    collisions.size(), collisions.stream().limit(REPORTED_COLLISIONS).toList());
+        }
+
+        int total = 0;
+        UUID lastId = new UUID(0, 0);
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT id, ssn FROM users WHERE ssn_hash IS NULL AND id > ? ORDER BY id LIMIT ?",
+                    lastId, BATCH_SIZE);
+            List<Object[]> updates = rows.stream()
+                    .filter(row -> !collisions.contains((UUID) row.get("id")))
+                    .map(row -> new Object[] {
+                            ssnBlindIndex.hash((String) row.get("ssn")),
+                            SsnBlindIndex.lastFour((String) row.get("ssn")),
+                            (UUID) row.get("id")})
+                    .toList();
+            jdbcTemplate.batchUpdate("UPDATE users SET ssn_hash = ?, ssn_last4 = ? WHERE id = ?", updates);
+            total += updates.size();
+            if (!rows.isEmpty()) {
+                lastId = (UUID) rows.get(rows.size() - 1).get("id");
+            }
+        } while (rows.size() == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Backfilled SSN blind index for {} users", total);
+        }
+    }
+
+    /**
+     * Users still missing a hash whose SSN digits match those of another user, with or without a
+     * hash; SSNs without any digits all count as one value.
+     */
+    private Set<UUID> findCollisions() {
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT u.id FROM users u
+                WHERE u.ssn_hash IS NULL
+                  AND EXISTS (SELECT 1 FROM users o
+                              WHERE o.id <> u.id
+                                AND regexp_replace(o.ssn, '\\D', '', 'g') = regexp_replace(u.ssn, '\\D', '', 'g'))
+                """, UUID.class));
+    }
+}
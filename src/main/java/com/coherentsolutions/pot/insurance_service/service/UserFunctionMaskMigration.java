@@ -0,0 +1,70 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves function assignments from {@code user_functions} into {@code users.function_mask} once
+ * bitmask storage is switched on. Bit positions come from {@link UserFunction} ordinals, which
+ * only the application knows, so this cannot be done by the Liquibase migration itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "insurance.users.function-storage", havingValue = "BITMASK")
+public class UserFunctionMaskMigration implements ApplicationRunner {
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // array_position is 1-based, ordinals are 0-based
+        String functionNames = Arrays.stream(UserFunction.values())
+                .map(function -> "'" + function.name() + "'")
+                .collect(Collectors.joining(", ", "ARRAY[", "]"));
+        String migrateBatch = """
+                WITH batch AS (
+                    SELECT id FROM users WHERE function_mask IS NULL LIMIT ? FOR UPDATE SKIP LOCKED
+                ), migrated AS (
+                    UPDATE users u
+                    SET function_mask = COALESCE((
+                        SELECT bit_or((1 << (array_position(%s, f.function) - 1))::smallint)
+                        FROM user_functions f
+                        WHERE f.user_id = u.id), 0)
+                    FROM batch b
+                    WHERE u.id = b.id
+                    RETURNING u.id
+                ), removed AS (
+                    DELETE FROM user_functions f USING migrated m WHERE f.user_id = m.id
+                )
+                SELECT count(*) FROM migrated
+                """.formatted(functionNames);
+
+        int total = 0;
+        int migrated;
+        do {
+            Integer count = transactionTemplate.execute(
+                    status -> jdbcTemplate.queryForObject(migrateBatch, Integer.class, BATCH_SIZE));
+            migrated = count == null ? 0 : count;
+            total += migrated;
+        } while (migrated == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Moved functions of {} users into users.function_mask", total);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserImportReport;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserImportRow;
+import com.coherentsolutions.pot.insurance_service.repository.UserImportStaging;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final int MAX_REPORTED_REJECTS = 1000;
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final ObjectMapper objectMapper;
+    private final UserImportStaging userImportStaging;
+    private final UserFunctionMask userFunctionMask;
+
+    /**
+     * Imports users from a CSV (with header) or NDJSON stream. The body is parsed record by record
+     * while it is copied into staging, so it is never held in memory; syntax errors abort the
+     * import, while rows with invalid values are skipped and reported.
+     */
+    @Transactional
+    public UserImportReport importUsers(InputStream body, MediaType contentType) {
+        userImportStaging.create();
+
+        long received;
+        try (MappingIterator<UserImportRow> rows = readerFor(contentType).readValues(body)) {
+            received = userImportStaging.copy(records(rows));
+        } catch (IOException e) {
+            throw malformed(e);
+        }
+
+        userImportStaging.validate();
+        long imported = userImportStaging.merge(userFunctionMask.isBitmask());
+
+        return UserImportReport.builder()
+                .received(received)
+                .imported(imported)
+                .rejected(received - imported)
+                .rejects(userImportStaging.rejects(MAX_REPORTED_REJECTS))
+                .build();
+    }
+
+    // MappingIterator's own Iterator methods hide parse errors in unchecked wrappers
+    private static Iterator<UserImportRow> records(MappingIterator<UserImportRow> rows) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return rows.hasNextValue();
+                } catch (IOException e) {
+                    throw malformed(e);
+                }
+            }
+
+            @Override
+            public UserImportRow next() {
+                try {
+                    return rows.nextValue();
+                } catch (IOException e) {
+                    throw malformed(e);
+                }
+            }
+        };
+    }
+
+    private static ResponseStatusException malformed(IOException e) {
+        String message = e instanceof JacksonException jackson && jackson.getLocation() != null
+                ? "Malformed import body at line " + jackson.getLocation().getLineNr() + ": " + jackson.getOriginalMessage()
+                : "Unable to read import body";
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message, e);
+    }
+
+    private ObjectReader readerFor(MediaType contentType) {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            CsvSchema schema = CsvSchema.emptySchema().withHeader().withArrayElementSeparator(";");
+            return CSV_MAPPER.readerFor(UserImportRow.class).with(schema);
+        }
+        return objectMapper.readerFor(UserImportRow.class);
+    }
+}
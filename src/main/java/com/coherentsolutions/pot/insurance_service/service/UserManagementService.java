@@ -1,54 +1,315 @@
 package com.coherentsolutions.pot.insurance_service.service;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.coherentsolutions.pot.insurance_service.cache.CacheInvalidationBus;
+import com.coherentsolutions.pot.insurance_service.cache.CompanyCache;
+import com.coherentsolutions.pot.insurance_service.cache.UserCache;
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.dto.page.CursorPage;
+import com.coherentsolutions.pot.insurance_service.dto.page.SlicePage;
+import com.coherentsolutions.pot.insurance_service.dto.user.BatchUserResult;
 import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
 import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.enums.BatchItemStatus;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.enums.CountMode;
+import com.coherentsolutions.pot.insurance_service.enums.ExportFormat;
 import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
+import com.coherentsolutions.pot.insurance_service.mapper.CompanyMapper;
 import com.coherentsolutions.pot.insurance_service.mapper.UserMapper;
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
 import com.coherentsolutions.pot.insurance_service.model.User;
 import com.coherentsolutions.pot.insurance_service.model.UserFunctionAssignment;
+import com.coherentsolutions.pot.insurance_service.repository.CompanyRepository;
+import com.coherentsolutions.pot.insurance_service.repository.KeysetPagination;
+import com.coherentsolutions.pot.insurance_service.repository.RowCountEstimator;
+import com.coherentsolutions.pot.insurance_service.repository.SearchPatterns;
+import com.coherentsolutions.pot.insurance_service.repository.UserBatchWriter;
 import com.coherentsolutions.pot.insurance_service.repository.UserRepository;
 import com.coherentsolutions.pot.insurance_service.repository.UserSpecification;
+import com.coherentsolutions.pot.insurance_service.util.ETags;
+import com.coherentsolutions.pot.insurance_service.util.ExportWriter;
+import com.coherentsolutions.pot.insurance_service.util.MergePatch;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import static com.coherentsolutions.pot.insurance_service.util.ObjectUtils.setIfNotNull;
 
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class UserManagementService {
+    // Properties backed by non-null columns that are unique or have a (property, id) index
+    private static final Set<String> CURSOR_SORTABLE =
+            Set.of("firstName", "lastName", "username", "email", "dateOfBirth", "createdAt");
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final List<String> EXPORT_COLUMNS = List.of(
+            "id", "firstName", "lastName", "username", "email", "dateOfBirth", "ssn", "addressData",
+            "phoneData", "functions", "status", "companyId");
+    private static final TypeReference<List<Address>> ADDRESSES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Phone>> PHONES = new TypeReference<>() {
+    };
+    private static final TypeReference<Set<UserFunction>> FUNCTION_SET = new TypeReference<>() {
+    };
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final RowCountEstimator rowCountEstimator;
+    private final SsnBlindIndex ssnBlindIndex;
+    private final CompanyRepository companyRepository;
+    private final CompanyMapper companyMapper;
+    private final UserFunctionMask userFunctionMask;
+    private final UserBatchWriter userBatchWriter;
+    private final Validator validator;
+    private final ExportWriter exportWriter;
+    private final ObjectMapper objectMapper;
+    private final CompanyCache companyCache;
+    private final UserCache userCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
+    @Transactional(readOnly = true)
     public Page<UserDto> getUsersWithFilters(UserFilter filter, Pageable pageable) {
-        Page<User> users = userRepository.findAll(UserSpecification.withFilters(filter), pageable);
+        return userRepository.findDtoPage(specificationFor(filter), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public SlicePage<UserDto> getUsersSlice(UserFilter filter, Pageable pageable, CountMode countMode) {
+        Specification<User> specification = specificationFor(filter);
+        Slice<User> users = userRepository.findSlice(specification, pageable);
+
+        Long total = switch (countMode) {
+            case NONE -> null;
+            case EXACT -> userRepository.count(specification);
+            case ESTIMATE -> rowCountEstimator.estimate("users", filter, new UserFilter().equals(filter),
+                    () -> userRepository.count(specification));
+        };
+        return SlicePage.of(users.map(userMapper::toDto), total);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getUsersByCursor(UserFilter filter, String after, String before, Pageable pageable) {
+        CursorPage<User> users = KeysetPagination.fetch(
+                userRepository, specificationFor(filter), after, before, pageable, CURSOR_SORTABLE);
         return users.map(userMapper::toDto);
     }
 
+    @Transactional(readOnly = true)
+    public List<UserDto> searchUsers(String text, int limit) {
+        String tsQuery = SearchPatterns.prefixTsQuery(text);
+        if (tsQuery == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must contain letters or digits");
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return userRepository.searchByText(tsQuery, boundedLimit).stream()
+                .map(userMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Streams every user matching the filter, ignoring paging. Runs outside the request thread's
+     * transaction: the export opens its own read-only stateless session when the body is written.
+     */
+    public StreamingResponseBody exportUsers(UserFilter filter, ExportFormat format) {
+        Specification<User> specification = specificationFor(filter);
+        return exportWriter.stream(format, UserDto.class, EXPORT_COLUMNS,
+                chunks -> userRepository.export(specification, chunks));
+    }
+
+    private Specification<User> specificationFor(UserFilter filter) {
+        return UserSpecification.withFilters(filter, ssnBlindIndex, userFunctionMask.storage());
+    }
+
+    /**
+     * Embeds the owning company into each user from the company cache, loading all misses of the
+     * page in one query.
+     */
+    public void embedCompanies(Collection<UserDto> users) {
+        Set<UUID> companyIds = users.stream()
+                .map(UserDto::getCompanyId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (companyIds.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, CompanyDto> companies = companyCache.getAll(companyIds, missing ->
+                companyRepository.findAllById(missing).stream()
+                        .map(companyMapper::toCompanyDto)
+                        .collect(Collectors.toMap(CompanyDto::getId, Function.identity())));
+        users.forEach(user -> user.setCompany(companies.get(user.getCompanyId())));
+    }
+
+    @Transactional
     public UserDto createUser(UserDto dto) {
         User user = userMapper.toEntity(dto);
+        prepareNewUser(user, dto);
+        // The blind index matches on digits only, so "123-45-6789" collides with "123456789"
+        if (user.getSsnHash() != null && userRepository.existsBySsnHash(user.getSsnHash())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "ssn: already exists");
+        }
+
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent insert won the race for one of the unique columns
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "User conflicts with an existing user", e);
+        }
+        return userMapper.toDto(user);
+    }
 
-        if (user.getFunctions() != null) {
+    /**
+     * Creates many users in one transaction. Every item is validated up front, including
+     * uniqueness against the batch itself and the database, and only valid items are written,
+     * so one bad row is reported in its result instead of failing the whole request.
+     */
+    @Transactional
+    public List<BatchUserResult> createUsers(List<UserDto> dtos) {
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + MAX_BATCH_SIZE + " users");
+        }
+
+        List<User> users = dtos.stream().map(this::newUser).toList();
+        List<List<String>> errors = users.stream()
+                .map(user -> validator.validate(user).stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .toList();
+
+        Set<UUID> companies = userBatchWriter.existingCompanies(users.stream()
+                .map(User::getCompanyId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        for (int i = 0; i < users.size(); i++) {
+            UUID companyId = users.get(i).getCompanyId();
+            if (companyId == null || !companies.contains(companyId)) {
+                errors.get(i).add("companyId: company not found");
+            }
+        }
+        rejectDuplicates(users, errors, "username", User::getUsername);
+        rejectDuplicates(users, errors, "email", User::getEmail);
+        rejectDuplicates(users, errors, "ssn_hash", User::getSsnHash);
+
+        List<User> valid = new ArrayList<>();
+        List<BatchUserResult> results = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (errors.get(i).isEmpty()) {
+                valid.add(users.get(i));
+                results.add(BatchUserResult.builder()
+                        .index(i).status(BatchItemStatus.CREATED).id(users.get(i).getId()).build());
+            } else {
+                results.add(BatchUserResult.builder()
+                        .index(i).status(BatchItemStatus.REJECTED).errors(errors.get(i)).build());
+            }
+        }
+
+        userBatchWriter.insert(valid);
+        return results;
+    }
+
+    // Batch rows bypass JPA, so their ids are assigned here rather than by the UUID generator
+    private User newUser(UserDto dto) {
+        User user = userMapper.toEntity(dto);
+        user.setId(UUID.randomUUID());
+        prepareNewUser(user, dto);
+        return user;
+    }
+
+    private void prepareNewUser(User user, UserDto dto) {
+        if (user.getSsn() != null) {
+            user.setSsnHash(ssnBlindIndex.hash(user.getSsn()));
+            user.setSsnLast4(SsnBlindIndex.lastFour(user.getSsn()));
+        }
+
+        if (userFunctionMask.isBitmask()) {
+            user.setFunctionMask(UserFunctionMask.copyOf(dto.getFunctions()));
+            user.setFunctions(new HashSet<>());
+        } else if (user.getFunctions() != null) {
             for (UserFunctionAssignment ufa : user.getFunctions()) {
                 ufa.setUser(user);
             }
         }
+    }
 
-        user = userRepository.save(user);
-        return userMapper.toDto(user);
+    // Later occurrences within the batch and values already stored are both rejected
+    private void rejectDuplicates(List<User> users, List<List<String>> errors, String column,
+                                  Function<User, String> value) {
+        Set<String> stored = userBatchWriter.existing(column, users.stream()
+                .map(value)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Set<String> seen = new HashSet<>();
+        String field = "ssn_hash".equals(column) ? "ssn" : column;
+        for (int i = 0; i < users.size(); i++) {
+            String candidate = value.apply(users.get(i));
+            if (candidate == null) {
+                continue;
+            }
+            if (stored.contains(candidate)) {
+                errors.get(i).add(field + ": already exists");
+            } else if (!seen.add(candidate)) {
+                errors.get(i).add(field + ": duplicated in batch");
+            }
+        }
+    }
+
+    // No surrounding transaction: a cache hit must not take a connection from the pool
+    public UserDto getUser(UUID id) {
+        return userCache.get(id, key -> userRepository.findWithFunctionsById(key).map(userMapper::toDto))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
+    /**
+     * Current version of the user, i.e. its ETag, served from the user cache.
+     */
+    public long getUserVersion(UUID id) {
+        return getUser(id).getVersion();
     }
 
     public UserDto updateUser(UUID id, UserDto request) {
+        return updateUser(id, request, null);
+    }
+
+    /**
+     * @param expectedVersions versions from the client's If-Match header, or {@code null} to overwrite
+     *                         whatever is current
+     */
+    @Transactional
+    public UserDto updateUser(UUID id, UserDto request, Set<Long> expectedVersions) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        ETags.checkPrecondition(expectedVersions, user.getVersion());
 
         setIfNotNull(request.getFirstName(), user::setFirstName);
         setIfNotNull(request.getLastName(), user::setLastName);
@@ -59,29 +320,72 @@ public class UserManagementService {
         user.setAddressData(request.getAddressData());
 
         if (request.getFunctions() != null) {
-            Set<UserFunction> incomingFunctions = request.getFunctions();
-            Set<UserFunctionAssignment> currentAssignments = user.getFunctions();
-
-            currentAssignments.removeIf(assignment -> !incomingFunctions.contains(assignment.getFunction()));
-
-            Set<UserFunction> currentFunctions = currentAssignments.stream()
-                    .map(UserFunctionAssignment::getFunction)
-                    .collect(Collectors.toSet());
-
-            for (UserFunction function : incomingFunctions) {
-                if (!currentFunctions.contains(function)) {
-                    UserFunctionAssignment newAssignment = new UserFunctionAssignment();
-                    newAssignment.setFunction(function);
-                    newAssignment.setUser(user);
-                    currentAssignments.add(newAssignment);
-                }
-            }
-
-            user.setFunctions(currentAssignments);
+            replaceFunctions(user, request.getFunctions());
         }
 
         User updated = userRepository.save(user);
+        // Flush so the returned version, and with it the ETag, reflects this update
+        userRepository.flush();
+        cacheInvalidationBus.publish(CacheRegion.USER, id);
         return userMapper.toDto(updated);
+    }
+
+    /**
+     * Applies a JSON Merge Patch. Only members present in the patch are set, and users are updated
+     * dynamically, so the UPDATE covers just the columns whose values actually changed.
+     */
+    @Transactional
+    public UserDto patchUser(UUID id, JsonNode patch, Set<Long> expectedVersions) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        ETags.checkPrecondition(expectedVersions, user.getVersion());
+
+        MergePatch.of(patch, objectMapper)
+                .validatedAgainst(User.class, validator)
+                .required("firstName", String.class, user::setFirstName)
+                .required("lastName", String.class, user::setLastName)
+                .required("username", String.class, user::setUsername)
+                .required("email", String.class, user::setEmail)
+                .required("dateOfBirth", LocalDate.class, user::setDateOfBirth)
+                .optional("status", UserStatus.class, user::setStatus)
+                .optional("addressData", ADDRESSES, user::setAddressData)
+                .optional("phoneData", PHONES, user::setPhoneData)
+                .optional("functions", FUNCTION_SET, functions -> replaceFunctions(user, functions))
+                .apply();
+
+        User patched = userRepository.saveAndFlush(user);
+        cacheInvalidationBus.publish(CacheRegion.USER, id);
+        return userMapper.toDto(patched);
+    }
 
+    // Diffs against the current assignments so unchanged ones are neither deleted nor re-inserted
+    private void replaceFunctions(User user, Set<UserFunction> incomingFunctions) {
+        Set<UserFunction> incoming = incomingFunctions != null ? incomingFunctions : Set.of();
+        if (user.getFunctionMask() != null) {
+            user.setFunctionMask(UserFunctionMask.copyOf(incoming));
+            return;
+        }
+
+        Set<UserFunctionAssignment> currentAssignments = user.getFunctions();
+        boolean changed = currentAssignments.removeIf(assignment -> !incoming.contains(assignment.getFunction()));
+
+        Set<UserFunction> currentFunctions = currentAssignments.stream()
+                .map(UserFunctionAssignment::getFunction)
+                .collect(Collectors.toSet());
+
+        for (UserFunction function : incoming) {
+            if (!currentFunctions.contains(function)) {
+                UserFunctionAssignment newAssignment = new UserFunctionAssignment();
+                newAssignment.setFunction(function);
+                newAssignment.setUser(user);
+                currentAssignments.add(newAssignment);
+                changed = true;
+            }
+        }
+
+        // Assignment rows alone do not dirty the user; touching it bumps its version and so its ETag
+        if (changed) {
+            user.setUpdatedAt(Instant.now());
+        }
     }
 }
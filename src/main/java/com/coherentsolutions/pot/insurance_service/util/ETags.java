@@ -0,0 +1,121 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong ETags derived from an entity's optimistic-locking version, optionally followed by a hash
+ * of the exact bytes sent, e.g. {@code "7-Jx3..."}. Either form names the version in If-Match.
+ */
+public final class ETags {
+    private static final String ANY = "*";
+    // 128 bits of SHA-256, base64url-encoded without padding
+    private static final int HASH_BYTES = 16;
+
+    private ETags() {
+
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * A tag for one encoding of the given version, changing whenever the representation does.
+     */
+    public static String of(long version, byte[] content) {
+        byte[] hash = sha256(content);
+        return "\"" + version + "-" + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Arrays.copyOf(hash, HASH_BYTES)) + "\"";
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A 200 response carrying the body and, when the version is known, its ETag.
+     */
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(of(version));
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Parses an {@code If-Match} header, a comma-separated list of entity tags or {@code *}, into
+     * the versions the client is willing to overwrite. Following RFC 9110, the precondition holds
+     * if any listed tag matches under strong comparison, so weak and foreign tags are skipped.
+     *
+     * @return {@code null} when there is no precondition, i.e. the header is absent or {@code *},
+     * which matches any current representation
+     * @throws ResponseStatusException 412 when no listed tag can match, or the list is malformed
+     */
+    public static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        int i = 0;
+        int length = ifMatch.length();
+        while (i < length) {
+            char c = ifMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            int close = open < length && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                throw preconditionFailed();
+            }
+            Long version = weak ? null : versionOf(ifMatch.substring(open + 1, close));
+            if (version != null) {
+                versions.add(version);
+            }
+            i = close + 1;
+        }
+        if (versions.isEmpty()) {
+            throw preconditionFailed();
+        }
+        return versions;
+    }
+
+    // The version in front of the optional content hash, or null for tags that are not ours
+    private static Long versionOf(String opaque) {
+        int hash = opaque.indexOf('-');
+        try {
+            return Long.parseLong(hash < 0 ? opaque : opaque.substring(0, hash));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fails with 412 unless the current version is one the client expects, if it expects any.
+     */
+    public static void checkPrecondition(Set<Long> expectedVersions, Long currentVersion) {
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            throw preconditionFailed();
+        }
+    }
+
+    private static ResponseStatusException preconditionFailed() {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current version");
+    }
+}
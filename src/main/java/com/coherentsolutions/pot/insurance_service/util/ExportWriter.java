@@ -0,0 +1,85 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.coherentsolutions.pot.insurance_service.enums.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes chunks of DTOs straight to the response as CSV or NDJSON. Each chunk is flushed before the
+ * next one is requested, so a slow client blocks the producer (and with it the database cursor)
+ * instead of letting rows pile up in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportWriter {
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param columns CSV columns, named after the DTO's JSON properties; nested values are written as JSON text
+     * @param source  pushes every chunk of the export to the given consumer, in order
+     */
+    public <T> StreamingResponseBody stream(ExportFormat format, Class<T> type, List<String> columns,
+                                            Consumer<Consumer<List<T>>> source) {
+        return outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+            try (SequenceWriter writer = writerFor(format, type, columns, out)) {
+                source.accept(chunk -> {
+                    try {
+                        for (T item : chunk) {
+                            writer.write(format == ExportFormat.CSV ? csvRow(item, columns) : item);
+                        }
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private SequenceWriter writerFor(ExportFormat format, Class<?> type, List<String> columns, OutputStream out)
+            throws IOException {
+        if (format == ExportFormat.CSV) {
+            CsvSchema schema = CsvSchema.builder().addColumns(columns, CsvSchema.ColumnType.STRING)
+                    .setUseHeader(true)
+                    .build();
+            return CSV_MAPPER.writer(schema).writeValues(out);
+        }
+        return objectMapper.writerFor(type).withRootValueSeparator("\n").writeValues(out);
+    }
+
+    private List<String> csvRow(Object item, List<String> columns) {
+        JsonNode node = objectMapper.valueToTree(item);
+        List<String> row = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            JsonNode value = node.get(column);
+            if (value == null || value.isNull()) {
+                row.add(null);
+            } else {
+                row.add(value.isContainerNode() ? value.toString() : value.asText());
+            }
+        }
+        return row;
+    }
+}
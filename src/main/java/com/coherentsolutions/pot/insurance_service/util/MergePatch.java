@@ -0,0 +1,143 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7386) to an entity one top-level member at a time: absent
+ * members are left untouched, {@code null} clears the property and any other value replaces it.
+ * Arrays are replaced as a whole, as the RFC requires. Only the setters of members present in the
+ * patch are called, so dirty checking sees exactly the properties the client sent.
+ */
+public final class MergePatch {
+    private final JsonNode patch;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Member<?>> members = new LinkedHashMap<>();
+    private Validator validator;
+    private Class<?> beanType;
+
+    private MergePatch(JsonNode patch, ObjectMapper objectMapper) {
+        this.patch = patch;
+        this.objectMapper = objectMapper;
+    }
+
+    public static MergePatch of(JsonNode patch, ObjectMapper objectMapper) {
+        if (patch == null || !patch.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Merge patch must be a JSON object");
+        }
+        return new MergePatch(patch, objectMapper);
+    }
+
+    /**
+     * Registers a member that may be cleared with {@code null}.
+     */
+    public <T> MergePatch optional(String name, Class<T> type, Consumer<T> setter) {
+        return member(name, objectMapper.constructType(type), setter, true);
+    }
+
+    public <T> MergePatch optional(String name, TypeReference<T> type, Consumer<T> setter) {
+        return member(name, objectMapper.constructType(type), setter, true);
+    }
+
+    /**
+     * Registers a member backed by a non-null column; a {@code null} value is rejected.
+     */
+    public <T> MergePatch required(String name, Class<T> type, Consumer<T> setter) {
+        return member(name, objectMapper.constructType(type), setter, false);
+    }
+
+    /**
+     * Checks every patched value against the bean validation constraints of the property with the
+     * same name on {@code beanType}, so a patch cannot store what a full update would refuse.
+     */
+    public MergePatch validatedAgainst(Class<?> beanType, Validator validator) {
+        this.beanType = beanType;
+        this.validator = validator;
+        return this;
+    }
+
+    private <T> MergePatch member(String name, JavaType type, Consumer<T> setter, boolean nullable) {
+        members.put(name, new Member<>(type, setter, nullable));
+        return this;
+    }
+
+    /**
+     * Validates the whole patch before touching anything, then calls the setters of the members
+     * it contains. Members that were not registered, such as read-only properties, are rejected,
+     * as are values that break a constraint of the bean type given to {@link #validatedAgainst}.
+     *
+     * @return whether the patch contained any member
+     */
+    public boolean apply() {
+        List<String> unsupported = new ArrayList<>();
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = patch.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Member<?> member = members.get(field.getKey());
+            if (member == null) {
+                unsupported.add(field.getKey());
+            } else {
+                values.put(field.getKey(), member.convert(field.getKey(), field.getValue(), objectMapper));
+            }
+        }
+        if (!unsupported.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported patch members: " + String.join(", ", unsupported));
+        }
+
+        if (validator != null) {
+            String violations = values.entrySet().stream()
+                    .flatMap(value -> violations(value.getKey(), value.getValue()))
+                    .collect(Collectors.joining(", "));
+            if (!violations.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, violations);
+            }
+        }
+
+        values.forEach((name, value) -> members.get(name).set(value));
+        return !values.isEmpty();
+    }
+
+    private Stream<String> violations(String name, Object value) {
+        return validator.validateValue(beanType, name, value).stream()
+                .map(violation -> name + ": " + violation.getMessage());
+    }
+
+    private record Member<T>(JavaType type, Consumer<T> setter, boolean nullable) {
+
+        Object convert(String name, JsonNode value, ObjectMapper objectMapper) {
+            if (value.isNull()) {
+                if (!nullable) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " cannot be removed");
+                }
+                return null;
+            }
+            try {
+                return objectMapper.convertValue(value, type);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid value for " + name, e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void set(Object value) {
+            setter.accept((T) value);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Keyed-hash (HMAC-SHA256) blind index over SSNs. The hash is stored in {@code users.ssn_hash}
+ * so an exact SSN lookup is a single unique-index probe, and the value cannot be reversed or
+ * brute-forced from the database alone without the key.
+ */
+@Component
+public class SsnBlindIndex {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public SsnBlindIndex(@Value("${insurance.security.ssn-hmac-key:}") String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalStateException("insurance.security.ssn-hmac-key (SSN_HMAC_KEY) must be set");
+        }
+        this.key = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * Hashes the digits of {@code ssn}, so "123-45-6789" and "123456789" share one index entry.
+     */
+    public String hash(String ssn) {
+        try {
+            // Mac instances are not thread-safe and are cheap to create
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return HexFormat.of().formatHex(mac.doFinal(digitsOf(ssn).getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute SSN blind index", e);
+        }
+    }
+
+    public static String lastFour(String ssn) {
+        String digits = digitsOf(ssn);
+        return digits.length() <= 4 ? digits : digits.substring(digits.length() - 4);
+    }
+
+    public static String digitsOf(String ssn) {
+        return ssn.replaceAll("\\D", "");
+    }
+}
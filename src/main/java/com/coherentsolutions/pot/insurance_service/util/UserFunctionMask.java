@@ -0,0 +1,55 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.coherentsolutions.pot.insurance_service.enums.FunctionStorage;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+
+/**
+ * Packs a user's functions into the {@code users.function_mask} smallint, one bit per
+ * {@link UserFunction} ordinal, and tells which storage new users are written to.
+ */
+@Component
+public class UserFunctionMask {
+    private final FunctionStorage storage;
+
+    public UserFunctionMask(@Value("${insurance.users.function-storage:TABLE}") FunctionStorage storage) {
+        this.storage = storage;
+    }
+
+    public FunctionStorage storage() {
+        return storage;
+    }
+
+    public boolean isBitmask() {
+        return storage == FunctionStorage.BITMASK;
+    }
+
+    public static short toMask(Collection<UserFunction> functions) {
+        int mask = 0;
+        for (UserFunction function : functions) {
+            mask |= 1 << function.ordinal();
+        }
+        return (short) mask;
+    }
+
+    public static EnumSet<UserFunction> fromMask(short mask) {
+        EnumSet<UserFunction> functions = EnumSet.noneOf(UserFunction.class);
+        for (UserFunction function : UserFunction.values()) {
+            if ((mask & (1 << function.ordinal())) != 0) {
+                functions.add(function);
+            }
+        }
+        return functions;
+    }
+
+    public static EnumSet<UserFunction> copyOf(Collection<UserFunction> functions) {
+        return functions == null || functions.isEmpty()
+                ? EnumSet.noneOf(UserFunction.class)
+                : EnumSet.copyOf(functions);
+    }
+}
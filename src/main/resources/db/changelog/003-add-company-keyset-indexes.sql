@@ -0,0 +1,4 @@
+-- Composite (sort key, id) indexes serving keyset pagination on /v1/companies/cursor
+CREATE INDEX IF NOT EXISTS idx_companies_name_id ON companies (name, id);
+CREATE INDEX IF NOT EXISTS idx_companies_country_code_id ON companies (country_code, id);
+CREATE INDEX IF NOT EXISTS idx_companies_created_at_id ON companies (created_at, id);
@@ -0,0 +1,6 @@
+-- Composite (sort key, id) indexes serving keyset pagination on /v1/users/cursor;
+-- username and email are already covered by their unique indexes
+CREATE INDEX IF NOT EXISTS idx_users_first_name_id ON users (first_name, id);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_id ON users (last_name, id);
+CREATE INDEX IF NOT EXISTS idx_users_date_of_birth_id ON users (date_of_birth, id);
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
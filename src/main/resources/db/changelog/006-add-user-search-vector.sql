@@ -0,0 +1,11 @@
+-- Weighted full-text document for GET /v1/users/search, maintained by Postgres on every write.
+-- Email is indexed both whole and split on '@' and '.', so "smith" matches "j.smith@acme.com".
+ALTER TABLE users ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(first_name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(last_name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(username, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(email, '')), 'C') ||
+    setweight(to_tsvector('simple', translate(coalesce(email, ''), '@.', '  ')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_users_search_vector ON users USING gin (search_vector);
@@ -0,0 +1,9 @@
+-- Blind index for SSN lookups: an HMAC of the SSN digits for exact matches and the last four
+-- digits for partial matches. ssn_hash is backfilled by the application, which holds the key.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS ssn_hash VARCHAR(64);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS ssn_last4 VARCHAR(4);
+
+UPDATE users SET ssn_last4 = right(regexp_replace(ssn, '[^0-9]', '', 'g'), 4) WHERE ssn_last4 IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_ssn_hash ON users (ssn_hash);
+CREATE INDEX IF NOT EXISTS idx_users_ssn_last4 ON users (ssn_last4);
@@ -0,0 +1,3 @@
+-- Serves the EXISTS probes behind the function filter on /v1/users: each probe is a single
+-- index lookup on (user_id, function) and the user_id FK lookups reuse the same index
+CREATE INDEX IF NOT EXISTS idx_user_functions_user_id_function ON user_functions (user_id, function);
@@ -0,0 +1,4 @@
+-- Compact storage for user functions: one bit per UserFunction ordinal. NULL means the user's
+-- functions are still stored in user_functions; the application moves them over when it runs
+-- with insurance.users.function-storage=BITMASK.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS function_mask SMALLINT;
@@ -0,0 +1,4 @@
+-- Optimistic locking for admin edits: Hibernate bumps version on every UPDATE and includes the
+-- expected value in its WHERE clause. It is also the ETag of the company/user representation.
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
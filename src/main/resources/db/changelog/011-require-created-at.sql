@@ -0,0 +1,6 @@
+-- Keyset pagination sorts by (created_at, id), and row comparisons skip NULLs, so rows without a
+-- creation time would silently drop out of cursor pages. Backfill them and forbid NULL from now on.
+UPDATE companies SET created_at = coalesce(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE companies ALTER COLUMN created_at SET NOT NULL;
+UPDATE users SET created_at = coalesce(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE users ALTER COLUMN created_at SET NOT NULL;
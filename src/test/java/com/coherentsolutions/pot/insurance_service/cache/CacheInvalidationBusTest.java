@@ -0,0 +1,109 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.service.CompanyManagementService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("Cache Invalidation Bus Tests")
+class CacheInvalidationBusTest extends PostgresTestContainer {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    private CompanyManagementService companyManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID cachedCompany(String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, ?, 'USA')", id, name);
+        assertThat(companyManagementService.getCompanyDetails(id).getName()).isEqualTo(name);
+        return id;
+    }
+
+    // Simulates a write by another node: the row changes without this node evicting anything
+    private void renameBehindCache(UUID id, String name) {
+        jdbcTemplate.update("UPDATE companies SET name = ? WHERE id = ?", name, id);
+        assertThat(companyManagementService.getCompanyDetails(id).getName()).isNotEqualTo(name);
+    }
+
+    private boolean eventuallyNamed(UUID id, String name) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (name.equals(companyManagementService.getCompanyDetails(id).getName())) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("Should evict a company when another node notifies after its commit")
+    void shouldEvictOnNotification() throws InterruptedException {
+        // Given
+        UUID id = cachedCompany("Before Notify");
+        renameBehindCache(id, "After Notify");
+
+        // When
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)",
+                        CacheInvalidationBus.CHANNEL, CacheRegion.COMPANY.name() + ":" + id));
+
+        // Then
+        assertThat(eventuallyNamed(id, "After Notify")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not deliver notifications of a rolled back transaction")
+    void shouldDropNotificationOnRollback() throws InterruptedException {
+        // Given
+        UUID id = cachedCompany("Before Rollback");
+        renameBehindCache(id, "After Rollback");
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)",
+                    CacheInvalidationBus.CHANNEL, CacheRegion.COMPANY.name() + ":" + id);
+            status.setRollbackOnly();
+        });
+        Thread.sleep(1_000);
+
+        // Then
+        assertThat(companyManagementService.getCompanyDetails(id).getName()).isEqualTo("Before Rollback");
+    }
+
+    @Test
+    @DisplayName("Should flush every cached company after the listen connection is lost")
+    void shouldFlushAfterReconnect() throws InterruptedException {
+        // Given
+        UUID id = cachedCompany("Before Gap");
+        renameBehindCache(id, "After Gap");
+
+        // When
+        Integer terminated = jdbcTemplate.queryForObject(
+                "SELECT count(pg_terminate_backend(pid))::int FROM pg_stat_activity WHERE application_name = ?",
+                Integer.class, CacheInvalidationBus.APPLICATION_NAME);
+
+        // Then
+        // Every cached test context runs its own listener
+        assertThat(terminated).isPositive();
+        assertThat(eventuallyNamed(id, "After Gap")).isTrue();
+    }
+}
@@ -0,0 +1,172 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.service.CompanyManagementService;
+import com.coherentsolutions.pot.insurance_service.service.UserManagementService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "insurance.cache.snapshot.enabled=true",
+        "insurance.cache.snapshot.path=${java.io.tmpdir}/insurance-cache-test/snapshot.bin"
+})
+@DisplayName("Cache Snapshot Tests")
+class CacheSnapshotTest extends PostgresTestContainer {
+
+    @Autowired
+    private CacheSnapshot cacheSnapshot;
+
+    @Autowired
+    private CompanyCache companyCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CompanyManagementService companyManagementService;
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private UUID insertCompany(String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, ?, 'USA')", id, name);
+        return id;
+    }
+
+    private Map<UUID, UserDto> cachedUsers() {
+        Map<UUID, UserDto> users = new HashMap<>();
+        userCache.forEachEntry(users::put);
+        return users;
+    }
+
+    private UUID insertUser(UUID companyId, String username, String ssn) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                VALUES (?, 'Snap', 'Shot', ?, ? || '@example.com', DATE '1990-01-01', ?, ?)
+                """, id, username, username, ssn, companyId);
+        jdbcTemplate.update("INSERT INTO user_functions (id, function, user_id) VALUES (gen_random_uuid(), 'CONSUMER', ?)", id);
+        return id;
+    }
+
+    @Test
+    @DisplayName("Should restore cached companies and reload cached users")
+    void shouldRestoreCurrentEntries() throws IOException {
+        // Given
+        UUID companyId = insertCompany("Snapshot Co");
+        UUID userId = insertUser(companyId, "snapshot_user", "S00-00-0001");
+        CompanyDto company = companyManagementService.getCompanyDetails(companyId);
+        UserDto user = userManagementService.getUser(userId);
+        Path snapshot = directory.resolve("snapshot.bin");
+
+        // When
+        cacheSnapshot.write(snapshot);
+        companyCache.invalidateAll();
+        userCache.invalidateAll();
+        cacheSnapshot.restore(snapshot);
+
+        // Then
+        assertThat(companyCache.entries()).containsEntry(companyId, company);
+        assertThat(cachedUsers()).containsEntry(userId, user);
+        assertThat(cachedUsers().get(userId).getFunctions()).containsExactly(UserFunction.CONSUMER);
+    }
+
+    @Test
+    @DisplayName("Should keep user data out of the owner-only snapshot file")
+    void shouldWriteNoUserData() throws IOException {
+        // Given
+        UUID companyId = insertCompany("Private Co");
+        UUID userId = insertUser(companyId, "snapshot_private", "S00-00-0003");
+        userManagementService.getUser(userId);
+        Path snapshot = directory.resolve("snapshot.bin");
+
+        // When
+        cacheSnapshot.write(snapshot);
+
+        // Then
+        String contents = new String(Files.readAllBytes(snapshot), StandardCharsets.ISO_8859_1);
+        assertThat(contents).doesNotContain("S00-00-0003").doesNotContain("snapshot_private");
+        if (snapshot.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(snapshot))).isEqualTo("rw-------");
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop companies that changed or disappeared and reload users as they are now")
+    void shouldDropOutdatedEntries() throws IOException {
+        // Given
+        UUID current = insertCompany("Current Co");
+        UUID updated = insertCompany("Updated Co");
+        UUID deleted = insertCompany("Deleted Co");
+        UUID updatedUserCompany = insertCompany("Employer Co");
+        UUID updatedUser = insertUser(updatedUserCompany, "snapshot_stale_user", "S00-00-0002");
+        for (UUID id : new UUID[] {current, updated, deleted}) {
+            companyManagementService.getCompanyDetails(id);
+        }
+        userManagementService.getUser(updatedUser);
+        Path snapshot = directory.resolve("snapshot.bin");
+        cacheSnapshot.write(snapshot);
+
+        // Writes made by other nodes while this one was down
+        jdbcTemplate.update("UPDATE companies SET name = 'Renamed Co', version = version + 1 WHERE id = ?", updated);
+        jdbcTemplate.update("DELETE FROM companies WHERE id = ?", deleted);
+        jdbcTemplate.update("UPDATE users SET first_name = 'Renamed', version = version + 1 WHERE id = ?", updatedUser);
+
+        // When
+        companyCache.invalidateAll();
+        userCache.invalidateAll();
+        cacheSnapshot.restore(snapshot);
+
+        // Then
+        assertThat(companyCache.entries()).containsKey(current).doesNotContainKeys(updated, deleted);
+        assertThat(cachedUsers().get(updatedUser).getFirstName()).isEqualTo("Renamed");
+        assertThat(companyManagementService.getCompanyDetails(updated).getName()).isEqualTo("Renamed Co");
+    }
+
+    @Test
+    @DisplayName("Should start with empty caches when the snapshot cannot be read")
+    void shouldIgnoreCorruptSnapshot() throws IOException {
+        // Given
+        UUID companyId = insertCompany("Corrupt Co");
+        companyManagementService.getCompanyDetails(companyId);
+        Path snapshot = directory.resolve("snapshot.bin");
+        cacheSnapshot.write(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 5));
+
+        // When
+        companyCache.invalidateAll();
+        cacheSnapshot.restore(snapshot);
+
+        // Then
+        assertThat(companyCache.entries()).isEmpty();
+    }
+}
@@ -0,0 +1,158 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Company Cache Tests")
+class CompanyCacheTest {
+
+    private final CompanyCache companyCache =
+            new CompanyCache(mock(PlatformTransactionManager.class), Duration.ofSeconds(10), 100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    private static CompanyDto company(UUID id) {
+        return CompanyDto.builder().id(id).name("Cached Co").version(0L).build();
+    }
+
+    @Test
+    @DisplayName("Should load each company once and serve later reads from memory")
+    void shouldCacheLoadedCompany() {
+        // Given
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            companyCache.get(id, key -> {
+                loads.incrementAndGet();
+                return Optional.of(company(key));
+            });
+        }
+
+        // Then
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should remember unknown ids")
+    void shouldCacheMisses() {
+        // Given
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        Optional<CompanyDto> first = companyCache.get(id, key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<CompanyDto> second = companyCache.get(id, key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should run a single load for concurrent misses on the same id")
+    void shouldCollapseConcurrentLoads() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        List<CompletableFuture<Optional<CompanyDto>>> readers = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> companyCache.get(id, key -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.of(company(key));
+                })))
+                .toList();
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        for (CompletableFuture<Optional<CompanyDto>> reader : readers) {
+            assertThat(reader.get(5, TimeUnit.SECONDS)).isPresent();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should load only the missing companies of a batch")
+    void shouldLoadMissingCompaniesInBulk() {
+        // Given
+        UUID cached = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        companyCache.get(cached, key -> Optional.of(company(key)));
+
+        // When
+        Map<UUID, CompanyDto> companies = companyCache.getAll(Set.of(cached, missing, unknown), ids -> {
+            assertThat(ids).containsExactlyInAnyOrder(missing, unknown);
+            return Map.of(missing, company(missing));
+        });
+
+        // Then
+        assertThat(companies).containsOnlyKeys(cached, missing);
+        assertThat(companyCache.get(unknown, key -> Optional.of(company(key)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reload a company after invalidation")
+    void shouldReloadAfterInvalidate() {
+        // Given
+        UUID id = UUID.randomUUID();
+        companyCache.get(id, key -> Optional.empty());
+
+        // When
+        companyCache.invalidate(id);
+
+        // Then
+        assertThat(companyCache.get(id, key -> Optional.of(company(key)))).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should publish hit and miss counts")
+    void shouldPublishMetrics() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        companyCache.bindTo(registry);
+        UUID id = UUID.randomUUID();
+
+        // When
+        companyCache.get(id, key -> Optional.of(company(key)));
+        companyCache.get(id, key -> Optional.of(company(key)));
+
+        // Then
+        assertThat(registry.get("cache.gets").tag("cache", "companies").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "companies").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
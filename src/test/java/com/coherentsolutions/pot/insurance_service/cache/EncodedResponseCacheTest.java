@@ -0,0 +1,159 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.util.ETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Encoded Response Cache Tests")
+class EncodedResponseCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final EncodedResponseCache encodedResponseCache =
+            new EncodedResponseCache(objectMapper, DataSize.ofMegabytes(1), true, DataSize.ofBytes(512));
+
+    private static CompanyDto company(UUID id, long version, String name) {
+        return CompanyDto.builder().id(id).name(name).version(version).build();
+    }
+
+    @Test
+    @DisplayName("Should encode each version once and reuse its bytes")
+    void shouldReuseEncodingOfSameVersion() {
+        // Given
+        UUID id = UUID.randomUUID();
+        EncodedResponseCache.EncodedResponse first =
+                encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Encoded Co"));
+
+        // When
+        EncodedResponseCache.EncodedResponse second =
+                encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Encoded Co"));
+        EncodedResponseCache.EncodedResponse updated =
+                encodedResponseCache.get(CacheRegion.COMPANY, id, 2, company(id, 2, "Renamed Co"));
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(updated.eTag()).isNotEqualTo(first.eTag());
+        assertThat(ETags.expectedVersions(updated.eTag())).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should record hits and misses in the cache statistics")
+    void shouldRecordHitsAndMisses() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encodedResponseCache.bindTo(registry);
+        UUID id = UUID.randomUUID();
+
+        // When
+        encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Counted Co"));
+        encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Counted Co"));
+        encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Counted Co"));
+        encodedResponseCache.get(CacheRegion.COMPANY, id, 2, company(id, 2, "Recounted Co"));
+
+        // Then
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should produce the same bytes Jackson would write")
+    void shouldMatchJacksonEncoding() throws IOException {
+        // Given
+        UUID id = UUID.randomUUID();
+        CompanyDto company = company(id, 4, "Plain Co");
+
+        // When
+        ResponseEntity<byte[]> response =
+                encodedResponseCache.get(CacheRegion.COMPANY, id, 4, company).toResponse(null);
+
+        // Then
+        assertThat(response.getBody()).isEqualTo(objectMapper.writeValueAsBytes(company));
+        assertThat(response.getHeaders().getETag()).startsWith("\"4-");
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should send pre-gzipped bytes of large bodies to clients that accept gzip")
+    void shouldServeGzipWhenAccepted() throws IOException {
+        // Given
+        UUID id = UUID.randomUUID();
+        CompanyDto company = company(id, 1, "Large Co ".repeat(200));
+        EncodedResponseCache.EncodedResponse encoded = encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company);
+
+        // When
+        ResponseEntity<byte[]> gzipped = encoded.toResponse("br, gzip;q=0.8");
+        ResponseEntity<byte[]> refused = encoded.toResponse("gzip;q=0, identity");
+
+        // Then
+        assertThat(gzipped.getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gzipped.getHeaders().getVary()).containsExactly("Accept-Encoding");
+        assertThat(gzipped.getHeaders().getETag()).isEqualTo(encoded.eTag().replaceFirst("\"$", "-gzip\""));
+        assertThat(ETags.expectedVersions(gzipped.getHeaders().getETag())).containsExactly(1L);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(encoded.json());
+        }
+        assertThat(gzipped.getBody().length).isLessThan(encoded.json().length);
+        assertThat(refused.getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(refused.getBody()).isEqualTo(encoded.json());
+        assertThat(refused.getHeaders().getETag()).isEqualTo(encoded.eTag());
+    }
+
+    @Test
+    @DisplayName("Should let an explicit gzip entry override the wildcard")
+    void shouldPreferExplicitGzipOverWildcard() {
+        // Given
+        UUID id = UUID.randomUUID();
+        EncodedResponseCache.EncodedResponse encoded =
+                encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Large Co ".repeat(200)));
+
+        // Then
+        assertThat(encoded.toResponse("*;q=0, gzip").getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(encoded.toResponse("*, gzip;q=0").getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(encoded.toResponse("br, *").getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(encoded.toResponse("br, *;q=0").getHeaders().getFirst("Content-Encoding")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not gzip bodies below the minimum size")
+    void shouldNotGzipSmallBodies() {
+        // Given
+        UUID id = UUID.randomUUID();
+
+        // When
+        EncodedResponseCache.EncodedResponse encoded =
+                encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Small Co"));
+
+        // Then
+        assertThat(encoded.gzipped()).isNull();
+        assertThat(encoded.toResponse("gzip").getHeaders().getFirst("Content-Encoding")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should re-encode a company after an invalidation")
+    void shouldReencodeAfterInvalidation() {
+        // Given
+        UUID id = UUID.randomUUID();
+        EncodedResponseCache.EncodedResponse first =
+                encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Encoded Co"));
+
+        // When
+        encodedResponseCache.invalidate(CacheRegion.COMPANY, id);
+
+        // Then
+        assertThat(encodedResponseCache.get(CacheRegion.COMPANY, id, 1, company(id, 1, "Encoded Co")))
+                .isNotSameAs(first);
+    }
+}
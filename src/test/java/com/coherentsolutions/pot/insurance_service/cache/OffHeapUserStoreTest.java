@@ -0,0 +1,226 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Phone;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Off-Heap User Store Tests")
+class OffHeapUserStoreTest {
+
+    // Two pages of 256 bytes: four users of up to 128 bytes each
+    private final OffHeapUserStore store = new OffHeapUserStore(512, 1, 256, Duration.ofMinutes(1));
+
+    private static UserDto user(String username) {
+        return UserDto.builder()
+                .firstName("Off")
+                .lastName("Heap")
+                .username(username)
+                .email(username + "@example.com")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .functions(EnumSet.of(UserFunction.CONSUMER))
+                .status(UserStatus.ACTIVE)
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return every field of a stored user")
+    void shouldRoundTripUser() {
+        // Given
+        OffHeapUserStore large = new OffHeapUserStore(1 << 20, 1, 4096, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+        UserDto user = UserDto.builder()
+                .id(id)
+                .firstName("Zoë")
+                .lastName("Łukasiewicz")
+                .username("zoe")
+                .email("zoe@example.com")
+                .dateOfBirth(LocalDate.of(1985, 12, 31))
+                .ssn("123-45-6789")
+                .addressData(List.of(new Address("USA", "Boston", "MA", "Main St", "1", null)))
+                .phoneData(List.of(new Phone("+1", "5550100"), new Phone("+1", "5550101")))
+                .functions(EnumSet.of(UserFunction.COMPANY_MANAGER, UserFunction.CONSUMER_CLAIM_MANAGER))
+                .status(UserStatus.INACTIVE)
+                .companyId(UUID.randomUUID())
+                .version(7L)
+                .build();
+        UserDto sparse = UserDto.builder().id(UUID.randomUUID()).username("sparse").build();
+
+        // When
+        large.put(id, user);
+        large.put(sparse.getId(), sparse);
+
+        // Then
+        assertThat(large.get(id)).isEqualTo(user);
+        assertThat(large.get(sparse.getId())).isEqualTo(sparse);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used user when its size class is full")
+    void shouldEvictLeastRecentlyUsed() {
+        // Given
+        UUID[] ids = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(store.put(ids[i], user("lru_user" + i))).isTrue();
+        }
+        store.get(ids[0]);
+
+        // When
+        UUID extra = UUID.randomUUID();
+        boolean stored = store.put(extra, user("lru_extra"));
+
+        // Then
+        assertThat(stored).isTrue();
+        assertThat(store.get(ids[1])).isNull();
+        assertThat(store.get(ids[0])).isNotNull();
+        assertThat(store.get(extra)).isNotNull();
+        assertThat(store.size()).isEqualTo(4);
+        assertThat(store.evictionCount()).isEqualTo(1);
+        assertThat(store.allocatedBytes()).isEqualTo(512);
+    }
+
+    @Test
+    @DisplayName("Should not store users larger than a page")
+    void shouldRejectOversizedUser() {
+        // Given
+        UUID id = UUID.randomUUID();
+        UserDto user = user("x".repeat(300));
+
+        // When
+        boolean stored = store.put(id, user);
+
+        // Then
+        assertThat(stored).isFalse();
+        assertThat(store.get(id)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the stored user on putIfAbsent")
+    void shouldNotReplaceOnPutIfAbsent() {
+        // Given
+        UUID id = UUID.randomUUID();
+        store.put(id, user("current"));
+
+        // When
+        boolean cached = store.putIfAbsent(id, user("snapshot"));
+
+        // Then
+        assertThat(cached).isTrue();
+        assertThat(store.get(id).getUsername()).isEqualTo("current");
+    }
+
+    @Test
+    @DisplayName("Should reuse memory after users are removed or cleared")
+    void shouldReuseMemory() {
+        // Given
+        UUID removed = UUID.randomUUID();
+        store.put(removed, user("removed"));
+        store.remove(removed);
+        for (int i = 0; i < 4; i++) {
+            store.put(UUID.randomUUID(), user("cleared" + i));
+        }
+
+        // When
+        store.clear();
+        Map<UUID, UserDto> stored = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            UUID id = UUID.randomUUID();
+            store.put(id, user("reused" + i));
+            stored.put(id, user("reused" + i));
+        }
+
+        // Then
+        assertThat(store.get(removed)).isNull();
+        Map<UUID, UserDto> visited = new HashMap<>();
+        store.forEach(visited::put);
+        assertThat(visited.keySet()).isEqualTo(stored.keySet());
+        assertThat(store.evictionCount()).isZero();
+        assertThat(store.allocatedBytes()).isEqualTo(512);
+    }
+
+    @Test
+    @DisplayName("Should stop serving users once their TTL has passed")
+    void shouldExpireUsers() throws InterruptedException {
+        // Given
+        OffHeapUserStore expiring = new OffHeapUserStore(512, 1, 256, Duration.ofMillis(1));
+        UUID id = UUID.randomUUID();
+        expiring.put(id, user("expiring"));
+
+        // When
+        Thread.sleep(10);
+
+        // Then
+        assertThat(expiring.get(id)).isNull();
+        assertThat(expiring.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should use fewer segments rather than more memory than the capacity")
+    void shouldStayWithinCapacity() {
+        // Given four pages of capacity asked to be split into sixteen segments
+        OffHeapUserStore small = new OffHeapUserStore(1024, 16, 256, Duration.ofMinutes(1));
+
+        // When
+        for (int i = 0; i < 64; i++) {
+            small.put(UUID.randomUUID(), user("capacity" + i));
+        }
+
+        // Then
+        assertThat(small.allocatedBytes()).isEqualTo(1024);
+        assertThatThrownBy(() -> new OffHeapUserStore(128, 1, 256, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep SSNs encrypted in the stored records")
+    void shouldNotStorePlaintextSsn() {
+        // Given
+        UserDto user = user("sealed").toBuilder().ssn("123-45-6789").build();
+
+        // When
+        byte[] record = UserDtoCodec.encode(user, new SsnCipher());
+
+        // Then
+        byte[] ssn = "123-45-6789".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + ssn.length <= record.length; i++) {
+            assertThat(Arrays.copyOfRange(record, i, i + ssn.length)).isNotEqualTo(ssn);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand users to forEach without holding the segment lock")
+    void shouldIterateOutsideLock() {
+        // Given
+        UUID id = UUID.randomUUID();
+        store.put(id, user("iterated"));
+        Map<UUID, UserDto> visited = new HashMap<>();
+
+        // When another thread reads the same segment from within the action
+        store.forEach((key, user) -> visited.put(key, CompletableFuture.supplyAsync(() -> store.get(key))
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join()));
+
+        // Then
+        assertThat(visited).containsOnlyKeys(id);
+        assertThat(visited.get(id).getUsername()).isEqualTo("iterated");
+    }
+}
@@ -0,0 +1,109 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.enums.CompanyStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Query Result Cache Tests")
+class QueryResultCacheTest {
+
+    private final QueryResultCache queryResultCache =
+            new QueryResultCache(mock(PlatformTransactionManager.class), Duration.ofSeconds(10), 100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private int query(CacheRegion region, Object query) {
+        return queryResultCache.get(region, query, loads::incrementAndGet);
+    }
+
+    private static CompanyFilter filter(String name, String countryCode) {
+        CompanyFilter filter = new CompanyFilter();
+        filter.setName(name);
+        filter.setCountryCode(countryCode);
+        filter.setStatus(CompanyStatus.ACTIVE);
+        return filter;
+    }
+
+    @Test
+    @DisplayName("Should serve equivalent filters from one cached result")
+    void shouldShareResultBetweenEquivalentFilters() {
+        // When
+        int first = query(CacheRegion.COMPANY, filter("Acme", "usa").normalized());
+        int second = query(CacheRegion.COMPANY, filter("  ACME ", " USA").normalized());
+        int blank = query(CacheRegion.COMPANY, filter(" ", null).normalized());
+        int absent = query(CacheRegion.COMPANY, filter(null, "").normalized());
+
+        // Then
+        assertThat(second).isEqualTo(first);
+        assertThat(absent).isEqualTo(blank);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should reload after a write to the queried region only")
+    void shouldReloadAfterWriteToRegion() {
+        // Given
+        query(CacheRegion.COMPANY, "companies");
+        query(CacheRegion.USER, "users");
+
+        // When
+        queryResultCache.invalidate(CacheRegion.COMPANY, UUID.randomUUID());
+        query(CacheRegion.COMPANY, "companies");
+        query(CacheRegion.USER, "users");
+
+        // Then
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should not serve results loaded before the writing transaction committed")
+    void shouldMoveToNewGenerationAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        queryResultCache.invalidate(CacheRegion.COMPANY, UUID.randomUUID());
+        // A concurrent reader caching rows as they were before the commit
+        query(CacheRegion.COMPANY, "companies");
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        query(CacheRegion.COMPANY, "companies");
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should reload every region after a full flush")
+    void shouldReloadAfterFlush() {
+        // Given
+        query(CacheRegion.COMPANY, "companies");
+        query(CacheRegion.USER, "users");
+
+        // When
+        queryResultCache.invalidateAll();
+        query(CacheRegion.COMPANY, "companies");
+        query(CacheRegion.USER, "users");
+
+        // Then
+        assertThat(loads).hasValue(4);
+    }
+}
@@ -0,0 +1,140 @@
+package com.coherentsolutions.pot.insurance_service.cache;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+import com.coherentsolutions.pot.insurance_service.model.User;
+import com.coherentsolutions.pot.insurance_service.repository.CompanyRepository;
+import com.coherentsolutions.pot.insurance_service.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("Second Level Cache Tests")
+class SecondLevelCacheTest extends PostgresTestContainer {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+    }
+
+    private UUID insertCompany() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'L2 Co', 'USA')", id);
+        return id;
+    }
+
+    private String loadCompanyName(UUID id) {
+        return transactionTemplate.execute(status -> companyRepository.findById(id).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should load a company from the database once and then from the second-level cache")
+    void shouldCacheCompanies() {
+        // Given
+        UUID id = insertCompany();
+        loadCompanyName(id);
+        statistics.clear();
+
+        // When
+        loadCompanyName(id);
+
+        // Then
+        assertThat(statistics.getEntityStatistics(Company.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("companies").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should serve a user's functions from the second-level cache")
+    void shouldCacheUserFunctions() {
+        // Given
+        UUID companyId = insertCompany();
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                VALUES (?, 'Cached', 'User', 'l2_user', 'l2_user@example.com', DATE '1990-01-01', 'L2-000-001', ?)
+                """, userId, companyId);
+        jdbcTemplate.update("""
+                INSERT INTO user_functions (id, function, user_id)
+                VALUES (gen_random_uuid(), 'CONSUMER', ?), (gen_random_uuid(), 'COMPANY_MANAGER', ?)
+                """, userId, userId);
+        Runnable loadFunctions = () -> transactionTemplate.executeWithoutResult(status ->
+                assertThat(userRepository.findById(userId).orElseThrow().getFunctions()).hasSize(2));
+        loadFunctions.run();
+        statistics.clear();
+
+        // When
+        loadFunctions.run();
+
+        // Then
+        assertThat(statistics.getCollectionStatistics(User.class.getName() + ".functions").getLoadCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("user-function-collections").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict a cached company on an invalidation")
+    void shouldEvictOnInvalidation() {
+        // Given
+        UUID id = insertCompany();
+        loadCompanyName(id);
+        jdbcTemplate.update("UPDATE companies SET name = 'Renamed L2 Co' WHERE id = ?", id);
+
+        // When
+        cacheInvalidationBus.publish(CacheRegion.COMPANY, id);
+
+        // Then
+        assertThat(cache.containsEntity(Company.class, id)).isFalse();
+        assertThat(loadCompanyName(id)).isEqualTo("Renamed L2 Co");
+    }
+
+    @Test
+    @DisplayName("Should publish second-level cache statistics as metrics")
+    void shouldPublishMetrics() {
+        // Given
+        loadCompanyName(insertCompany());
+
+        // Then
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", "companies").meters())
+                .isNotEmpty();
+    }
+}
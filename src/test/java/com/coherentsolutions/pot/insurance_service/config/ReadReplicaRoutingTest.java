@@ -0,0 +1,245 @@
+package com.coherentsolutions.pot.insurance_service.config;
+
+import com.coherentsolutions.pot.insurance_service.cache.CompanyCache;
+import com.coherentsolutions.pot.insurance_service.cache.QueryResultCache;
+import com.coherentsolutions.pot.insurance_service.enums.CacheRegion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a primary and a hot standby fed by streaming replication and checks that read-only
+ * transactions and cache misses land on the standby while writes, non-transactional work and
+ * misses for recently written keys stay on the primary, and that a standby falling behind the
+ * primary stops receiving reads.
+ */
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Read Replica Routing Tests")
+class ReadReplicaRoutingTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16.9")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(Transferable.of("""
+                    psql -v ON_ERROR_STOP=1 -U "$POSTGRES_USER" -d "$POSTGRES_DB" \
+                         -c "CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD 'replicator'"
+                    echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+                    """, 0755), "/docker-entrypoint-initdb.d/10-replication.sh")
+            .withCommand("postgres", "-c", "wal_level=replica", "-c", "max_wal_senders=4", "-c", "hot_standby=on");
+
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>("postgres:16.9")
+            .withNetwork(NETWORK)
+            .dependsOn(PRIMARY)
+            .withEnv("PGPASSWORD", "replicator")
+            .withExposedPorts(5432)
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres").withEntrypoint("bash", "-c", """
+                    until pg_basebackup -h primary -U replicator -D "$PGDATA" -R -X stream; do
+                        rm -rf "$PGDATA"/*; sleep 1
+                    done
+                    chmod 700 "$PGDATA"
+                    exec postgres
+                    """))
+            .withEnv("PGDATA", "/var/lib/postgresql/data/standby")
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    static {
+        PRIMARY.start();
+        REPLICA.start();
+    }
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("insurance.security.ssn-hmac-key", () -> "test-ssn-hmac-key");
+        registry.add("insurance.datasource.replicas[0].url", () -> "jdbc:postgresql://" + REPLICA.getHost() + ":"
+                + REPLICA.getMappedPort(5432) + "/" + PRIMARY.getDatabaseName());
+        registry.add("insurance.datasource.replica-check-interval", () -> "PT1S");
+        registry.add("insurance.datasource.max-replica-lag", () -> "PT1S");
+    }
+
+    @AfterAll
+    static void stopContainers() {
+        REPLICA.stop();
+        PRIMARY.stop();
+        NETWORK.close();
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaPoolDataSource replicaPoolDataSource;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private CompanyCache companyCache;
+
+    private boolean inRecovery(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(transaction.execute(
+                status -> jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should route read-only transactions to the replica")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        assertThat(replicaPoolDataSource.availableReplicas()).containsExactly("replica-0");
+        assertThat(inRecovery(true)).isTrue();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should keep read-write transactions on the primary")
+    void shouldKeepWritesOnPrimary() {
+        assertThat(inRecovery(false)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)).isFalse();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should see rows written on the primary through the replica")
+    void shouldReplicateWrites() throws InterruptedException {
+        // Given
+        jdbcTemplate.update("INSERT INTO companies (name, country_code) VALUES ('Replicated', 'USA')");
+
+        // When replication catches up
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Integer found = 0;
+        for (int attempt = 0; attempt < 50 && found == 0; attempt++) {
+            Thread.sleep(100);
+            found = readOnly.execute(status -> jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM companies WHERE name = 'Replicated'", Integer.class));
+        }
+
+        // Then
+        assertThat(found).isEqualTo(1);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should load cache misses from the replica, but from the primary right after a write")
+    void shouldLoadRecentlyWrittenCacheMissesFromPrimary() {
+        // Given
+        UUID unchanged = UUID.randomUUID();
+        UUID written = UUID.randomUUID();
+
+        // When
+        Boolean resultInRecovery = queryResultCache.get(CacheRegion.USER, UUID.randomUUID(),
+                () -> jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+        Boolean companyInRecovery = companyInRecovery(unchanged);
+        queryResultCache.invalidate(CacheRegion.USER, written);
+        companyCache.invalidate(written);
+        Boolean writtenResultInRecovery = queryResultCache.get(CacheRegion.USER, UUID.randomUUID(),
+                () -> jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+        Boolean writtenCompanyInRecovery = companyInRecovery(written);
+
+        // Then
+        assertThat(resultInRecovery).isTrue();
+        assertThat(companyInRecovery).isTrue();
+        assertThat(writtenResultInRecovery).isFalse();
+        assertThat(writtenCompanyInRecovery).isFalse();
+    }
+
+    private Boolean companyInRecovery(UUID id) {
+        Boolean[] inRecovery = new Boolean[1];
+        companyCache.get(id, key -> {
+            inRecovery[0] = jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class);
+            return Optional.empty();
+        });
+        return inRecovery[0];
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should drop a replica whose WAL receiver stopped while the primary keeps writing")
+    void shouldDropReplicaCutOffFromPrimary() throws InterruptedException {
+        // Given the standby can no longer stream from the primary
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource("jdbc:postgresql://" + REPLICA.getHost()
+                + ":" + REPLICA.getMappedPort(5432) + "/" + PRIMARY.getDatabaseName(),
+                PRIMARY.getUsername(), PRIMARY.getPassword()));
+        jdbcTemplate.execute("ALTER ROLE replicator NOLOGIN");
+        jdbcTemplate.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_replication");
+        try {
+            for (int attempt = 0; attempt < 50 && receiverStreaming(replica); attempt++) {
+                Thread.sleep(100);
+            }
+            assertThat(receiverStreaming(replica)).isFalse();
+            jdbcTemplate.update("INSERT INTO companies (name, country_code) VALUES ('Unreplicated', 'USA')");
+            Thread.sleep(1_500);
+
+            // When
+            replicaPoolDataSource.checkReplicas();
+
+            // Then everything it received is replayed, yet it is behind the primary
+            assertThat(replica.queryForObject(
+                    "SELECT pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()", Boolean.class)).isTrue();
+            assertThat(replicaPoolDataSource.availableReplicas()).isEmpty();
+            assertThat(inRecovery(true)).isFalse();
+        } finally {
+            jdbcTemplate.execute("ALTER ROLE replicator LOGIN");
+        }
+
+        // And it rejoins once streaming resumes and it has caught up
+        for (int attempt = 0; attempt < 300 && replicaPoolDataSource.availableReplicas().isEmpty(); attempt++) {
+            Thread.sleep(100);
+            replicaPoolDataSource.checkReplicas();
+        }
+        assertThat(replicaPoolDataSource.availableReplicas()).containsExactly("replica-0");
+    }
+
+    private static boolean receiverStreaming(JdbcTemplate replica) {
+        return Boolean.TRUE.equals(replica.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')", Boolean.class));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Should fall back to the primary when the replica is gone")
+    void shouldFallBackToPrimary() {
+        // Given
+        REPLICA.stop();
+
+        // When
+        replicaPoolDataSource.checkReplicas();
+
+        // Then
+        assertThat(replicaPoolDataSource.availableReplicas()).isEmpty();
+        assertThat(inRecovery(true)).isFalse();
+    }
+}
@@ -3,20 +3,26 @@ package com.coherentsolutions.pot.insurance_service.containers;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
 
-@Testcontainers
+/**
+ * One PostgreSQL container for the whole test run. Spring caches application contexts across
+ * test classes, so a container per class would be stopped under a context that is reused later.
+ * The container is started once here and removed by Testcontainers when the JVM exits.
+ */
 public abstract class PostgresTestContainer {
 
-    @Container
     public static final PostgreSQLContainer<?> POSTGRES =
             new PostgreSQLContainer<>("postgres:16.9");
 
+    static {
+        POSTGRES.start();
+    }
+
     @DynamicPropertySource
     static void overrideProps(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true");
         registry.add("spring.datasource.username", POSTGRES::getUsername);
         registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("insurance.security.ssn-hmac-key", () -> "test-ssn-hmac-key");
     }
 }
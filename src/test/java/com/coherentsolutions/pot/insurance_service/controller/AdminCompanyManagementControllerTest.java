@@ -1,5 +1,6 @@
 package com.coherentsolutions.pot.insurance_service.controller;
 
+import com.coherentsolutions.pot.insurance_service.cache.EncodedResponseCache;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
 import com.coherentsolutions.pot.insurance_service.enums.CompanyStatus;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -19,15 +21,22 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,6 +49,10 @@ class AdminCompanyManagementControllerTest {
     @Mock
     private CompanyManagementService companyManagementService;
 
+    @Spy
+    private EncodedResponseCache encodedResponseCache = new EncodedResponseCache(
+            Jackson2ObjectMapperBuilder.json().build(), DataSize.ofMegabytes(1), true, DataSize.ofKilobytes(1));
+
     @InjectMocks
     private AdminCompanyManagementController controller;
 
@@ -67,6 +80,7 @@ class AdminCompanyManagementControllerTest {
                 .website("https://testcompany.com")
                 .createdAt(Instant.now())
                 .updatedAt(Instant.now())
+                .version(1L)
                 .build();
     }
 
@@ -214,6 +228,35 @@ class AdminCompanyManagementControllerTest {
 
             verify(companyManagementService).getCompanyDetails(testCompanyId);
         }
+
+        @Test
+        @DisplayName("Should tag company details with their version and content hash")
+        void shouldReturnVersionAndContentHashAsETag() throws Exception {
+            // Given
+            testCompanyDto.setVersion(3L);
+            when(companyManagementService.getCompanyDetails(testCompanyId)).thenReturn(testCompanyDto);
+
+            // When & Then
+            mockMvc.perform(get("/v1/companies/{id}", testCompanyId))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", matchesPattern("\"3-[A-Za-z0-9_-]{22}\"")));
+        }
+
+        @Test
+        @DisplayName("Should answer a matching If-None-Match without a body")
+        void shouldReturnNotModifiedForMatchingETag() throws Exception {
+            // Given
+            when(companyManagementService.getCompanyDetails(testCompanyId)).thenReturn(testCompanyDto);
+            String eTag = mockMvc.perform(get("/v1/companies/{id}", testCompanyId))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/v1/companies/{id}", testCompanyId)
+                            .header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", eTag))
+                    .andExpect(content().string(""));
+        }
     }
 
     @Nested
@@ -232,12 +275,13 @@ class AdminCompanyManagementControllerTest {
 
             CompanyDto updatedCompany = CompanyDto.builder()
                     .id(testCompanyId)
+                    .version(2L)
                     .name("Updated Company")
                     .status(CompanyStatus.DEACTIVATED)
                     .email("updated@company.com")
                     .build();
 
-            when(companyManagementService.updateCompany(eq(testCompanyId), any(CompanyDto.class)))
+            when(companyManagementService.updateCompany(eq(testCompanyId), any(CompanyDto.class), isNull()))
                     .thenReturn(updatedCompany);
 
             // When & Then
@@ -251,7 +295,82 @@ class AdminCompanyManagementControllerTest {
                     .andExpect(jsonPath("$.status").value("DEACTIVATED"))
                     .andExpect(jsonPath("$.email").value("updated@company.com"));
 
-            verify(companyManagementService).updateCompany(eq(testCompanyId), any(CompanyDto.class));
+            verify(companyManagementService).updateCompany(eq(testCompanyId), any(CompanyDto.class), isNull());
+        }
+
+        @Test
+        @DisplayName("Should pass the If-Match version to the update")
+        void shouldPassIfMatchVersion() throws Exception {
+            // Given
+            CompanyDto updatedCompany = CompanyDto.builder().id(testCompanyId).version(5L).build();
+            when(companyManagementService.updateCompany(eq(testCompanyId), any(CompanyDto.class), eq(Set.of(4L))))
+                    .thenReturn(updatedCompany);
+
+            // When & Then
+            mockMvc.perform(put("/v1/companies/{id}", testCompanyId)
+                            .header("If-Match", "\"4\"")
+                            .content("{\"name\": \"Updated Company\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", startsWith("\"5-")));
+        }
+
+        @Test
+        @DisplayName("Should pass every strong version of an If-Match list and skip the others")
+        void shouldPassIfMatchList() throws Exception {
+            // Given
+            CompanyDto updatedCompany = CompanyDto.builder().id(testCompanyId).version(5L).build();
+            when(companyManagementService.updateCompany(eq(testCompanyId), any(CompanyDto.class), eq(Set.of(3L, 4L))))
+                    .thenReturn(updatedCompany);
+
+            // When & Then
+            mockMvc.perform(put("/v1/companies/{id}", testCompanyId)
+                            .header("If-Match", "W/\"2\", \"3\",\"foreign,tag\" , \"4-Jx3abc\"")
+                            .content("{\"name\": \"Updated Company\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should treat If-Match * as no version precondition")
+        void shouldAcceptAnyIfMatch() throws Exception {
+            // Given
+            CompanyDto updatedCompany = CompanyDto.builder().id(testCompanyId).version(5L).build();
+            when(companyManagementService.updateCompany(eq(testCompanyId), any(CompanyDto.class), isNull()))
+                    .thenReturn(updatedCompany);
+
+            // When & Then
+            mockMvc.perform(put("/v1/companies/{id}", testCompanyId)
+                            .header("If-Match", "*")
+                            .content("{\"name\": \"Updated Company\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed If-Match list")
+        void shouldRejectMalformedIfMatch() throws Exception {
+            // When & Then
+            mockMvc.perform(put("/v1/companies/{id}", testCompanyId)
+                            .header("If-Match", "\"4\", 5")
+                            .content("{\"name\": \"Updated Company\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isPreconditionFailed());
+
+            verify(companyManagementService, never()).updateCompany(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject a weak If-Match tag")
+        void shouldRejectWeakIfMatch() throws Exception {
+            // When & Then
+            mockMvc.perform(put("/v1/companies/{id}", testCompanyId)
+                            .header("If-Match", "W/\"4\"")
+                            .content("{\"name\": \"Updated Company\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isPreconditionFailed());
+
+            verify(companyManagementService, never()).updateCompany(any(), any(), any());
         }
 
         @Test
@@ -262,7 +381,7 @@ class AdminCompanyManagementControllerTest {
                     .name("Updated Company")
                     .build();
 
-            when(companyManagementService.updateCompany(eq(testCompanyId), any(CompanyDto.class)))
+            when(companyManagementService.updateCompany(eq(testCompanyId), any(CompanyDto.class), isNull()))
                     .thenThrow(new org.springframework.web.server.ResponseStatusException(
                             org.springframework.http.HttpStatus.NOT_FOUND, "Company not found"));
 
@@ -272,7 +391,7 @@ class AdminCompanyManagementControllerTest {
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isNotFound());
 
-            verify(companyManagementService).updateCompany(eq(testCompanyId), any(CompanyDto.class));
+            verify(companyManagementService).updateCompany(eq(testCompanyId), any(CompanyDto.class), isNull());
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
+import com.coherentsolutions.pot.insurance_service.dto.page.CursorPage;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Keyset Pagination Tests")
+class KeysetPaginationTest {
+
+    private static final Set<String> SORTABLE = Set.of("name", "createdAt");
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private Company company(String name) {
+        Company company = new Company();
+        company.setId(UUID.randomUUID());
+        company.setName(name);
+        company.setCreatedAt(Instant.now());
+        return company;
+    }
+
+    @Nested
+    @DisplayName("Cursor Encoding")
+    class CursorEncoding {
+
+        @Test
+        @DisplayName("Should round-trip cursor values containing the separator")
+        void shouldRoundTripCursor() {
+            // Given
+            UUID id = UUID.randomUUID();
+            KeysetCursor cursor = new KeysetCursor("name", Sort.Direction.DESC, id, "Acme | Sons");
+
+            // When
+            KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+            // Then
+            assertThat(decoded.getProperty()).isEqualTo("name");
+            assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+            assertThat(decoded.getId()).isEqualTo(id);
+            assertThat(decoded.getValue()).isEqualTo("Acme | Sons");
+        }
+
+        @Test
+        @DisplayName("Should convert cursor value to attribute type")
+        void shouldConvertCursorValue() {
+            // Given
+            Instant createdAt = Instant.parse("2025-01-01T10:15:30Z");
+            KeysetCursor cursor = new KeysetCursor("createdAt", Sort.Direction.ASC, UUID.randomUUID(), createdAt.toString());
+
+            // When & Then
+            assertThat(cursor.typedValue(Instant.class)).isEqualTo(createdAt);
+        }
+
+        @Test
+        @DisplayName("Should reject malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Nested
+    @DisplayName("Fetch")
+    class Fetch {
+
+        @Test
+        @DisplayName("Should return next cursor when more rows exist")
+        void shouldReturnNextCursorWhenMoreRowsExist() {
+            // Given
+            Company first = company("Alpha");
+            Company second = company("Beta");
+            Company third = company("Gamma");
+            when(companyRepository.findBy(any(Specification.class), any())).thenReturn(List.of(first, second, third));
+
+            // When
+            CursorPage<Company> page = KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(new CompanyFilter()), null, null,
+                    PageRequest.of(0, 2, Sort.by("name")), SORTABLE);
+
+            // Then
+            assertThat(page.getContent()).containsExactly(first, second);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.isHasPrevious()).isFalse();
+            KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+            assertThat(next.getProperty()).isEqualTo("name");
+            assertThat(next.getValue()).isEqualTo("Beta");
+            assertThat(next.getId()).isEqualTo(second.getId());
+        }
+
+        @Test
+        @DisplayName("Should not return next cursor on last page")
+        void shouldNotReturnNextCursorOnLastPage() {
+            // Given
+            Company only = company("Alpha");
+            when(companyRepository.findBy(any(Specification.class), any())).thenReturn(List.of(only));
+            String after = new KeysetCursor("name", Sort.Direction.ASC, UUID.randomUUID(), "Aaron").encode();
+
+            // When
+            CursorPage<Company> page = KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(new CompanyFilter()), after, null,
+                    PageRequest.of(0, 2, Sort.by("name")), SORTABLE);
+
+            // Then
+            assertThat(page.getContent()).containsExactly(only);
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+            assertThat(page.isHasPrevious()).isTrue();
+            assertThat(page.getPreviousCursor()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should read backwards before cursor and restore sort order")
+        void shouldReadBackwardsBeforeCursor() {
+            // Given rows returned in reversed scan order
+            Company gamma = company("Gamma");
+            Company beta = company("Beta");
+            Company alpha = company("Alpha");
+            when(companyRepository.findBy(any(Specification.class), any())).thenReturn(List.of(gamma, beta, alpha));
+            String before = new KeysetCursor("name", Sort.Direction.ASC, UUID.randomUUID(), "Delta").encode();
+
+            // When
+            CursorPage<Company> page = KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(new CompanyFilter()), null, before,
+                    PageRequest.of(0, 2, Sort.by("name")), SORTABLE);
+
+            // Then
+            assertThat(page.getContent()).containsExactly(beta, gamma);
+            assertThat(page.isHasPrevious()).isTrue();
+            assertThat(KeysetCursor.decode(page.getPreviousCursor()).getValue()).isEqualTo("Beta");
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(KeysetCursor.decode(page.getNextCursor()).getValue()).isEqualTo("Gamma");
+        }
+
+        @Test
+        @DisplayName("Should not announce pages without cursors when reading backwards finds nothing")
+        void shouldNotAnnounceNextPageForEmptyBackwardPage() {
+            // Given
+            when(companyRepository.findBy(any(Specification.class), any())).thenReturn(List.of());
+            String before = new KeysetCursor("name", Sort.Direction.ASC, UUID.randomUUID(), "Aaron").encode();
+
+            // When
+            CursorPage<Company> page = KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(new CompanyFilter()), null, before,
+                    PageRequest.of(0, 2, Sort.by("name")), SORTABLE);
+
+            // Then
+            assertThat(page.getContent()).isEmpty();
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+            assertThat(page.isHasPrevious()).isFalse();
+            assertThat(page.getPreviousCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject both after and before cursors")
+        void shouldRejectBothCursors() {
+            String cursor = new KeysetCursor("name", Sort.Direction.ASC, UUID.randomUUID(), "Beta").encode();
+
+            assertThatThrownBy(() -> KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(new CompanyFilter()), cursor, cursor,
+                    PageRequest.of(0, 2, Sort.by("name")), SORTABLE))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("Should reject sort property outside the whitelist")
+        void shouldRejectUnsupportedSort() {
+            assertThatThrownBy(() -> KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(new CompanyFilter()), null, null,
+                    PageRequest.of(0, 2, Sort.by("website")), SORTABLE))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+
+            verify(companyRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        @DisplayName("Should reject cursor issued for a different sort")
+        void shouldRejectCursorForDifferentSort() {
+            String after = new KeysetCursor("createdAt", Sort.Direction.ASC, UUID.randomUUID(), Instant.now().toString()).encode();
+
+            assertThatThrownBy(() -> KeysetPagination.fetch(
+                    companyRepository, CompanySpecification.withFilters(new CompanyFilter()), after, null,
+                    PageRequest.of(0, 2, Sort.by("name")), SORTABLE))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
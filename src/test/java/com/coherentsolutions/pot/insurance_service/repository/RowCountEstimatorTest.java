@@ -0,0 +1,134 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Row Count Estimator Tests")
+class RowCountEstimatorTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should use planner estimate for unfiltered lists")
+    void shouldUsePlannerEstimateForUnfilteredLists() {
+        // Given
+        RowCountEstimator estimator = new RowCountEstimator(jdbcTemplate, Duration.ofMinutes(1), CLOCK);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("companies"))).thenReturn(List.of(1_000_000L));
+
+        // When
+        long estimate = estimator.estimate("companies", new CompanyFilter(), true, () -> {
+            throw new AssertionError("Exact count must not run");
+        });
+
+        // Then
+        assertThat(estimate).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should fall back to exact count when table was never analyzed")
+    void shouldFallBackToExactCountWhenNotAnalyzed() {
+        // Given
+        RowCountEstimator estimator = new RowCountEstimator(jdbcTemplate, Duration.ofMinutes(1), CLOCK);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("companies"))).thenReturn(List.of(-1L));
+
+        // When
+        long estimate = estimator.estimate("companies", new CompanyFilter(), true, () -> 42L);
+
+        // Then
+        assertThat(estimate).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should reuse exact count for equal filters within TTL")
+    void shouldReuseExactCountWithinTtl() {
+        // Given
+        RowCountEstimator estimator = new RowCountEstimator(jdbcTemplate, Duration.ofMinutes(1), CLOCK);
+        AtomicInteger counts = new AtomicInteger();
+        CompanyFilter first = new CompanyFilter();
+        first.setName("Acme");
+        CompanyFilter second = new CompanyFilter();
+        second.setName("Acme");
+
+        // When
+        long firstCount = estimator.estimate("companies", first, false, () -> 10L + counts.incrementAndGet());
+        long secondCount = estimator.estimate("companies", second, false, () -> 10L + counts.incrementAndGet());
+
+        // Then
+        assertThat(firstCount).isEqualTo(11L);
+        assertThat(secondCount).isEqualTo(11L);
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should recount once TTL has expired")
+    void shouldRecountOnceTtlExpired() {
+        // Given
+        RowCountEstimator estimator = new RowCountEstimator(jdbcTemplate, Duration.ZERO, CLOCK);
+        AtomicInteger counts = new AtomicInteger();
+        CompanyFilter filter = new CompanyFilter();
+        filter.setName("Acme");
+
+        // When
+        estimator.estimate("companies", filter, false, counts::incrementAndGet);
+        estimator.estimate("companies", filter, false, counts::incrementAndGet);
+
+        // Then
+        assertThat(counts).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should count other filters while a slow count is running")
+    void shouldNotBlockOtherFiltersDuringCount() throws Exception {
+        // Given
+        RowCountEstimator estimator = new RowCountEstimator(jdbcTemplate, Duration.ofMinutes(1), CLOCK);
+        CountDownLatch slowCountStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlowCount = new CountDownLatch(1);
+        CompanyFilter slow = new CompanyFilter();
+        slow.setName("Slow");
+        CompanyFilter fast = new CompanyFilter();
+        fast.setName("Fast");
+        CompletableFuture<Long> slowCount = CompletableFuture.supplyAsync(() ->
+                estimator.estimate("companies", slow, false, () -> {
+                    slowCountStarted.countDown();
+                    try {
+                        releaseSlowCount.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return 1L;
+                }));
+        assertThat(slowCountStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        long fastCount = estimator.estimate("companies", fast, false, () -> 2L);
+        releaseSlowCount.countDown();
+
+        // Then
+        assertThat(fastCount).isEqualTo(2L);
+        assertThat(slowCount.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+    }
+}
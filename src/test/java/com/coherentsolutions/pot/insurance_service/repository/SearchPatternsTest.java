@@ -0,0 +1,40 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Search Patterns Tests")
+class SearchPatternsTest {
+
+    @Test
+    @DisplayName("Should escape LIKE wildcards in substring pattern")
+    void shouldEscapeLikeWildcards() {
+        assertThat(SearchPatterns.containsPattern(" 100%_Off ")).isEqualTo("%100\\%\\_off%");
+    }
+
+    @Test
+    @DisplayName("Should build prefix tsquery from free text")
+    void shouldBuildPrefixTsQuery() {
+        assertThat(SearchPatterns.prefixTsQuery("Jo Smi")).isEqualTo("jo:* & smi:*");
+    }
+
+    @Test
+    @DisplayName("Should split email into searchable words")
+    void shouldSplitEmailIntoWords() {
+        assertThat(SearchPatterns.prefixTsQuery("j.smith@acme")).isEqualTo("j:* & smith:* & acme:*");
+    }
+
+    @Test
+    @DisplayName("Should strip tsquery operators from input")
+    void shouldStripTsQueryOperators() {
+        assertThat(SearchPatterns.prefixTsQuery("smith & !(x | y)")).isEqualTo("smith:* & x:* & y:*");
+    }
+
+    @Test
+    @DisplayName("Should return null when no words remain")
+    void shouldReturnNullWhenNoWordsRemain() {
+        assertThat(SearchPatterns.prefixTsQuery(" &!| ")).isNull();
+    }
+}
@@ -0,0 +1,187 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Explains the SQL Hibernate generates for the name and email filters of {@link UserSpecification}
+ * and {@link CompanySpecification}, captured with a {@link StatementInspector}. The tables are
+ * seeded with enough distinct rows, and analyzed, for the planner to weigh a sequential scan
+ * against the trigram indexes on its own, so the plans are the ones production would get.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Trigram Index Usage Tests")
+class TrigramIndexUsageTest extends PostgresTestContainer {
+
+    private static final int ROWS = 50_000;
+    private static final int MATCHES = 5;
+    private static final String TERM = "trgmterm";
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private RecordingStatementInspector inspector;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private SsnBlindIndex ssnBlindIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void loadRows() {
+        UUID companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Trgm Employer', 'USA')", companyId);
+        jdbcTemplate.update("""
+                INSERT INTO companies (name, country_code)
+                SELECT CASE WHEN g <= ? THEN 'Acme ' || ? || ' Holdings ' || g ELSE 'Co ' || md5(g::text) END, 'USA'
+                FROM generate_series(1, ?) g
+                """, MATCHES, TERM, ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO users (first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                SELECT CASE WHEN g <= ? THEN ?::text || g ELSE 'F' || md5(g::text) END, 'L' || md5((g + 1)::text),
+                       'trgm_user' || g, md5((g + 2)::text) || '@example.com', DATE '1990-01-01',
+                       'TG' || lpad(g::text, 9, '0'), ?
+                FROM generate_series(1, ?) g
+                """, MATCHES, TERM, companyId, ROWS);
+        jdbcTemplate.execute("ANALYZE companies");
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    /**
+     * Runs {@code query} and returns the one statement it issued with a LIKE predicate.
+     */
+    private String generatedSql(Runnable query) {
+        inspector.statements.clear();
+        query.run();
+        List<String> matching = inspector.statements.stream()
+                .filter(sql -> sql.toLowerCase().contains(" like "))
+                .toList();
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+
+    /**
+     * Explains {@code sql} with every parameter bound to {@code pattern}, which holds for
+     * filters that only set one text field.
+     */
+    private String explain(String sql, String pattern) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                long parameters = sql.chars().filter(c -> c == '?').count();
+                for (int i = 1; i <= parameters; i++) {
+                    explain.setString(i, pattern);
+                }
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.add(rows.getString(1));
+                    }
+                }
+                return String.join("\n", plan);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should use trigram index for company name search")
+    void shouldUseTrigramIndexForCompanyName() {
+        // Given
+        CompanyFilter filter = new CompanyFilter();
+        filter.setName(TERM);
+
+        // When
+        String sql = generatedSql(() -> companyRepository.findAll(CompanySpecification.withFilters(filter)));
+        String plan = explain(sql, SearchPatterns.containsPattern(TERM));
+
+        // Then
+        assertThat(plan).contains("idx_companies_name_trgm").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Should combine first and last name trigram indexes for user name search")
+    void shouldUseTrigramIndexesForUserName() {
+        // Given
+        UserFilter filter = new UserFilter();
+        filter.setName(TERM);
+
+        // When
+        String sql = generatedSql(() -> userRepository.findAll(UserSpecification.withFilters(filter, ssnBlindIndex)));
+        String plan = explain(sql, SearchPatterns.containsPattern(TERM));
+
+        // Then
+        assertThat(plan)
+                .contains("idx_users_first_name_trgm")
+                .contains("idx_users_last_name_trgm")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Should use trigram index for user email search")
+    void shouldUseTrigramIndexForUserEmail() {
+        // Given
+        UserFilter filter = new UserFilter();
+        String fragment = jdbcTemplate.queryForObject("SELECT substr(md5('44'), 9, 12)", String.class);
+        filter.setEmail(fragment);
+
+        // When
+        String sql = generatedSql(() -> userRepository.findAll(UserSpecification.withFilters(filter, ssnBlindIndex)));
+        String plan = explain(sql, SearchPatterns.containsPattern(fragment));
+
+        // Then
+        assertThat(plan).contains("idx_users_email_trgm").doesNotContain("Seq Scan");
+    }
+}
@@ -0,0 +1,94 @@
+package com.coherentsolutions.pot.insurance_service.repository;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.enums.FunctionMatch;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.model.User;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("User Function Filter Tests")
+class UserFunctionFilterTest extends PostgresTestContainer {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SsnBlindIndex ssnBlindIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void loadUsers() {
+        UUID companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Acme', 'USA')", companyId);
+        insertUser(1, "fnfilter_consumer", companyId, "CONSUMER");
+        insertUser(2, "fnfilter_manager", companyId, "COMPANY_MANAGER");
+        insertUser(3, "fnfilter_both", companyId, "CONSUMER", "COMPANY_MANAGER");
+        insertUser(4, "fnfilter_none", companyId);
+    }
+
+    private void insertUser(int n, String username, UUID companyId, String... functions) {
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                VALUES (?, 'Fn', 'Filter', ?, ? || '@example.com', DATE '1990-01-01', ?, ?)
+                """, userId, username, username, String.format("FN0-00-%04d", n), companyId);
+        for (String function : functions) {
+            jdbcTemplate.update("INSERT INTO user_functions (id, function, user_id) VALUES (gen_random_uuid(), ?, ?)",
+                    function, userId);
+        }
+    }
+
+    private Page<User> find(FunctionMatch match, UserFunction... functions) {
+        UserFilter filter = new UserFilter();
+        filter.setEmail("fnfilter_");
+        filter.setFunctions(Set.of(functions));
+        filter.setFunctionMatch(match);
+        return userRepository.findAll(UserSpecification.withFilters(filter, ssnBlindIndex),
+                PageRequest.of(0, 10, Sort.by("username")));
+    }
+
+    @Test
+    @DisplayName("Should return each user once when several functions match")
+    void shouldReturnEachUserOnceForAnyMatch() {
+        // When
+        Page<User> page = find(null, UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER);
+
+        // Then
+        assertThat(page.getContent()).extracting(User::getUsername)
+                .containsExactly("fnfilter_both", "fnfilter_consumer", "fnfilter_manager");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should return only users holding all requested functions")
+    void shouldReturnUsersHoldingAllFunctions() {
+        // When
+        Page<User> page = find(FunctionMatch.ALL, UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER);
+
+        // Then
+        assertThat(page.getContent()).extracting(User::getUsername).containsExactly("fnfilter_both");
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+}
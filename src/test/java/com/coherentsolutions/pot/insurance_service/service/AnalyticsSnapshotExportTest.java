@@ -0,0 +1,146 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.analytics.SnapshotExportReport;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Analytics Snapshot Export Tests")
+class AnalyticsSnapshotExportTest extends PostgresTestContainer {
+
+    @Autowired
+    private AnalyticsSnapshotExport analyticsSnapshotExport;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID companyId;
+
+    @BeforeAll
+    void loadUsers() {
+        companyId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO companies (id, name, country_code, address_data)
+                VALUES (?, 'Parquet Co', 'CAN', '[{"country":"CAN","city":"Toronto","street":"King St"}]')
+                """, companyId);
+        jdbcTemplate.update("""
+                INSERT INTO users (first_name, last_name, username, email, date_of_birth, ssn, company_id, function_mask,
+                                   phone_data)
+                VALUES ('Mia', 'Stone', 'parquet_mask', 'parquet_mask@example.com', DATE '1980-05-17', 'P00000001', ?, 17,
+                        '[{"code":"+1","number":"5550100"}]'),
+                       ('Leo', 'Hart', 'parquet_table', 'parquet_table@example.com', DATE '1975-11-02', 'P00000002', ?, NULL,
+                        NULL),
+                       ('Ida', 'Moss', 'parquet_orphan', 'parquet_orphan@example.com', DATE '1990-01-01', 'P00000003', ?, 1,
+                        NULL)
+                """, companyId, companyId, UUID.randomUUID());
+        jdbcTemplate.update("""
+                INSERT INTO user_functions (id, function, user_id)
+                SELECT gen_random_uuid(), 'CONSUMER', id FROM users WHERE username = 'parquet_table'
+                """);
+    }
+
+    private static List<Group> read(String file) throws IOException {
+        List<Group> rows = new ArrayList<>();
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(Path.of(file)))) {
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                        .getRecordReader(rowGroup, new GroupRecordConverter(schema));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    rows.add(records.read());
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static Group byField(List<Group> rows, String field, String value) {
+        return rows.stream()
+                .filter(row -> row.getString(field, 0).equals(value))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<String> functions(Group user) {
+        Group functions = user.getGroup("functions", 0);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < functions.getFieldRepetitionCount("list"); i++) {
+            names.add(functions.getGroup("list", i).getString("element", 0));
+        }
+        return names;
+    }
+
+    @Test
+    @DisplayName("Should write every company and user with nested address and phone columns")
+    void shouldExportSnapshot() throws IOException {
+        // When
+        SnapshotExportReport report = analyticsSnapshotExport.export();
+
+        // Then
+        assertThat(Path.of(report.getCompanies().getPath())).exists();
+        assertThat(Path.of(report.getUsers().getPath())).exists();
+        assertThat(report.getUsers().getRows())
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class));
+
+        List<Group> companies = read(report.getCompanies().getPath());
+        assertThat(companies).hasSize((int) report.getCompanies().getRows());
+        Group company = byField(companies, "id", companyId.toString());
+        Group address = company.getGroup("address_data", 0).getGroup("list", 0).getGroup("element", 0);
+        assertThat(address.getString("city", 0)).isEqualTo("Toronto");
+        assertThat(address.getFieldRepetitionCount("room")).isZero();
+
+        List<Group> users = read(report.getUsers().getPath());
+        Group masked = byField(users, "username", "parquet_mask");
+        assertThat(masked.getInteger("date_of_birth", 0)).isEqualTo((int) LocalDate.of(1980, 5, 17).toEpochDay());
+        assertThat(masked.getString("company_country_code", 0)).isEqualTo("CAN");
+        assertThat(functions(masked)).containsExactlyInAnyOrder("CONSUMER", "COMPANY_MANAGER");
+        assertThat(masked.getGroup("phone_data", 0).getGroup("list", 0).getGroup("element", 0)
+                .getString("number", 0)).isEqualTo("5550100");
+
+        Group table = byField(users, "username", "parquet_table");
+        assertThat(functions(table)).containsExactly("CONSUMER");
+        assertThat(table.getFieldRepetitionCount("phone_data")).isZero();
+        assertThat(table.getType().containsField("ssn")).isFalse();
+
+        Group orphan = byField(users, "username", "parquet_orphan");
+        assertThat(orphan.getFieldRepetitionCount("company_country_code")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should leave no partial files behind")
+    void shouldMoveFilesIntoPlace() throws IOException {
+        // When
+        SnapshotExportReport report = analyticsSnapshotExport.export();
+
+        // Then
+        try (var files = Files.list(Path.of(report.getUsers().getPath()).getParent())) {
+            assertThat(files.map(path -> path.getFileName().toString())).noneMatch(name -> name.endsWith(".tmp"));
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.coherentsolutions.pot.insurance_service.service;
 
 import com.coherentsolutions.pot.insurance_service.dto.AddressDto;
+import com.coherentsolutions.pot.insurance_service.cache.CacheInvalidationBus;
+import com.coherentsolutions.pot.insurance_service.cache.CompanyCache;
+import com.coherentsolutions.pot.insurance_service.cache.QueryResultCache;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
 import com.coherentsolutions.pot.insurance_service.dto.PhoneDto;
@@ -18,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -25,8 +29,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -48,6 +54,17 @@ class CompanyManagementServiceTest {
     @Mock
     private CompanyMapper companyMapper;
 
+    @Spy
+    private CompanyCache companyCache =
+            new CompanyCache(mock(PlatformTransactionManager.class), Duration.ofSeconds(10), 100, Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Spy
+    private QueryResultCache queryResultCache =
+            new QueryResultCache(mock(PlatformTransactionManager.class), Duration.ofSeconds(10), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private CompanyManagementService companyManagementService;
 
@@ -122,11 +139,10 @@ class CompanyManagementServiceTest {
             filter.setStatus(CompanyStatus.ACTIVE);
 
             Pageable pageable = PageRequest.of(0, 10);
-            Page<Company> companyPage = new PageImpl<>(List.of(testCompany), pageable, 1);
+            Page<CompanyDto> companyPage = new PageImpl<>(List.of(testCompanyDto), pageable, 1);
 
-            when(companyRepository.findAll(any(Specification.class), eq(pageable)))
+            when(companyRepository.findDtoPage(any(Specification.class), eq(pageable)))
                     .thenReturn(companyPage);
-            when(companyMapper.toCompanyDto(testCompany)).thenReturn(testCompanyDto);
 
             // When
             Page<CompanyDto> result = companyManagementService.getCompaniesWithFilters(filter, pageable);
@@ -135,8 +151,8 @@ class CompanyManagementServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getContent()).hasSize(1);
             assertThat(result.getContent().get(0)).isEqualTo(testCompanyDto);
-            verify(companyRepository).findAll(any(Specification.class), eq(pageable));
-            verify(companyMapper).toCompanyDto(testCompany);
+            verify(companyRepository).findDtoPage(any(Specification.class), eq(pageable));
+            verify(companyRepository, never()).findAll(any(Specification.class), any(Pageable.class));
         }
 
         @Test
@@ -146,9 +162,9 @@ class CompanyManagementServiceTest {
             CompanyFilter filter = new CompanyFilter();
             filter.setName("NonExistent");
             Pageable pageable = PageRequest.of(0, 10);
-            Page<Company> emptyPage = new PageImpl<>(List.of(), pageable, 0);
+            Page<CompanyDto> emptyPage = new PageImpl<>(List.of(), pageable, 0);
 
-            when(companyRepository.findAll(any(Specification.class), eq(pageable)))
+            when(companyRepository.findDtoPage(any(Specification.class), eq(pageable)))
                     .thenReturn(emptyPage);
 
             // When
@@ -157,7 +173,7 @@ class CompanyManagementServiceTest {
             // Then
             assertThat(result).isNotNull();
             assertThat(result.getContent()).isEmpty();
-            verify(companyRepository).findAll(any(Specification.class), eq(pageable));
+            verify(companyRepository).findDtoPage(any(Specification.class), eq(pageable));
             verify(companyMapper, never()).toCompanyDto(any());
         }
     }
@@ -1,5 +1,8 @@
 package com.coherentsolutions.pot.insurance_service.service;
 
+import com.coherentsolutions.pot.insurance_service.cache.CacheInvalidationBus;
+import com.coherentsolutions.pot.insurance_service.cache.CompanyCache;
+import com.coherentsolutions.pot.insurance_service.cache.QueryResultCache;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
 import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
 import com.coherentsolutions.pot.insurance_service.enums.CompanyStatus;
@@ -16,15 +19,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -45,6 +51,17 @@ class CompanyServiceTest {
     @Mock
     private CompanyMapper companyMapper;
 
+    @Spy
+    private CompanyCache companyCache =
+            new CompanyCache(mock(PlatformTransactionManager.class), Duration.ofSeconds(10), 100, Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Spy
+    private QueryResultCache queryResultCache =
+            new QueryResultCache(mock(PlatformTransactionManager.class), Duration.ofSeconds(10), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private CompanyManagementService companyService;
 
@@ -224,10 +241,9 @@ class CompanyServiceTest {
             filter.setStatus(CompanyStatus.ACTIVE);
 
             Pageable pageable = PageRequest.of(0, 10);
-            Page<Company> companyPage = new PageImpl<>(List.of(testCompany), pageable, 1);
+            Page<CompanyDto> companyPage = new PageImpl<>(List.of(testCompanyDto), pageable, 1);
 
-            when(companyRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(companyPage);
-            when(companyMapper.toCompanyDto(testCompany)).thenReturn(testCompanyDto);
+            when(companyRepository.findDtoPage(any(Specification.class), eq(pageable))).thenReturn(companyPage);
 
             // When
             Page<CompanyDto> result = companyService.getCompaniesWithFilters(filter, pageable);
@@ -237,8 +253,7 @@ class CompanyServiceTest {
             assertThat(result.getContent()).hasSize(1);
             assertThat(result.getContent().get(0).getId()).isEqualTo(testCompanyId);
 
-            verify(companyRepository).findAll(any(Specification.class), eq(pageable));
-            verify(companyMapper).toCompanyDto(testCompany);
+            verify(companyRepository).findDtoPage(any(Specification.class), eq(pageable));
         }
     }
 } 
\ No newline at end of file
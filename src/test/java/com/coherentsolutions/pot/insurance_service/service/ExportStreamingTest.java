@@ -0,0 +1,128 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.CompanyFilter;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.enums.ExportFormat;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Export Streaming Tests")
+class ExportStreamingTest extends PostgresTestContainer {
+
+    // More than one fetch chunk, so the cursor is read in several round trips
+    private static final int USERS = 2500;
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private CompanyManagementService companyManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void loadUsers() {
+        UUID companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Export Works', 'USA')", companyId);
+        jdbcTemplate.update("""
+                INSERT INTO users (first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                SELECT 'First' || g, 'Last' || g, 'export_user' || g, 'export_user' || g || '@example.com',
+                       DATE '1990-01-01', 'E' || lpad(g::text, 9, '0'), ?
+                FROM generate_series(1, ?) g
+                """, companyId, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO user_functions (id, function, user_id)
+                SELECT gen_random_uuid(), 'CONSUMER', u.id
+                FROM users u
+                WHERE u.username LIKE 'export\\_user%'
+                """);
+    }
+
+    private static String written(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should stream every filtered user as NDJSON in id order")
+    void shouldExportUsersAsNdjson() throws IOException {
+        // Given
+        UserFilter filter = new UserFilter();
+        filter.setEmail("export_user");
+
+        // When
+        String body = written(userManagementService.exportUsers(filter, ExportFormat.NDJSON));
+
+        // Then
+        List<UserDto> users = body.lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, UserDto.class);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertThat(users).hasSize(USERS);
+        assertThat(users).allSatisfy(user -> assertThat(user.getFunctions()).containsExactly(UserFunction.CONSUMER));
+        assertThat(users).extracting(UserDto::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should stream filtered users as CSV with a header row")
+    void shouldExportUsersAsCsv() throws IOException {
+        // Given
+        UserFilter filter = new UserFilter();
+        filter.setEmail("export_user250@");
+
+        // When
+        List<String> lines = written(userManagementService.exportUsers(filter, ExportFormat.CSV)).lines().toList();
+
+        // Then
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).isEqualTo(
+                "id,firstName,lastName,username,email,dateOfBirth,ssn,addressData,phoneData,functions,status,companyId");
+        assertThat(lines.get(1)).contains(",First250,Last250,export_user250,export_user250@example.com,1990-01-01,",
+                "\"[\"\"CONSUMER\"\"]\"");
+    }
+
+    @Test
+    @DisplayName("Should stream filtered companies")
+    void shouldExportCompanies() throws IOException {
+        // Given
+        CompanyFilter filter = new CompanyFilter();
+        filter.setName("Export Works");
+
+        // When
+        List<String> lines = written(companyManagementService.exportCompanies(filter, ExportFormat.CSV)).lines().toList();
+
+        // Then
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(1)).contains(",Export Works,USA,");
+    }
+}
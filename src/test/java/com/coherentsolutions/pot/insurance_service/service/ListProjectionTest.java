@@ -0,0 +1,106 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.mapper.UserMapper;
+import com.coherentsolutions.pot.insurance_service.model.User;
+import com.coherentsolutions.pot.insurance_service.repository.UserRepository;
+import com.coherentsolutions.pot.insurance_service.repository.UserSpecification;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that one page of the user list read through the DTO projection path equals the page read
+ * through managed entities plus {@link UserMapper}. What each path allocates and how long it takes
+ * is measured by ListProjectionBenchmark in the jmh source set.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("List Projection Tests")
+class ListProjectionTest extends PostgresTestContainer {
+
+    private static final int USERS = 500;
+    private static final Pageable PAGE = PageRequest.of(0, 200, Sort.by("username"));
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private SsnBlindIndex ssnBlindIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void loadUsers() {
+        UUID companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Acme', 'USA')", companyId);
+        jdbcTemplate.update("""
+                INSERT INTO users (first_name, last_name, username, email, date_of_birth, ssn, company_id,
+                                   address_data, phone_data)
+                SELECT 'First' || g, 'Last' || g, 'projection_user' || g, 'projection_user' || g || '@example.com',
+                       DATE '1990-01-01', 'B' || lpad(g::text, 9, '0'), ?,
+                       '[{"country": "USA", "city": "Austin", "street": "Main St"}]'::jsonb,
+                       '[{"code": "+1", "number": "555-0100"}]'::jsonb
+                FROM generate_series(1, ?) g
+                """, companyId, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO user_functions (id, function, user_id)
+                SELECT gen_random_uuid(), 'CONSUMER', id FROM users WHERE username LIKE 'projection_user%'
+                """);
+    }
+
+    private Specification<User> specification() {
+        UserFilter filter = new UserFilter();
+        filter.setEmail("projection_user");
+        return UserSpecification.withFilters(filter, ssnBlindIndex);
+    }
+
+    private List<UserDto> viaEntities() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> userRepository.findAll(specification(), PAGE)
+                .map(userMapper::toDto)
+                .getContent());
+    }
+
+    private List<UserDto> viaProjection() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Page<UserDto> page = userRepository.findDtoPage(specification(), PAGE);
+            return page.getContent();
+        });
+    }
+
+    @Test
+    @DisplayName("Should return the same users as the entity path")
+    void shouldMatchEntityPath() {
+        // Address and Phone have no equals, so compare field by field
+        assertThat(viaProjection()).usingRecursiveComparison().isEqualTo(viaEntities());
+    }
+}
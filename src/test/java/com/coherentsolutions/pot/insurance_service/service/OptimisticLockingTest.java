@@ -0,0 +1,111 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DisplayName("Optimistic Locking Tests")
+class OptimisticLockingTest extends PostgresTestContainer {
+
+    @Autowired
+    private CompanyManagementService companyManagementService;
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UUID companyId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        companyId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Versioned Co', 'USA')", companyId);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                VALUES (?, 'Ver', 'Sion', ?, ?, DATE '1990-01-01', ?, ?)
+                """, userId, "version_" + userId, "version_" + userId + "@example.com",
+                "V" + userId.toString().substring(0, 9), companyId);
+    }
+
+    @Test
+    @DisplayName("Should bump the version on every effective update")
+    void shouldIncrementVersion() {
+        // Given
+        long initial = companyManagementService.getCompanyDetails(companyId).getVersion();
+
+        // When
+        CompanyDto updated = companyManagementService.updateCompany(
+                companyId, CompanyDto.builder().name("Renamed Co").build(), Set.of(initial));
+
+        // Then
+        assertThat(updated.getVersion()).isEqualTo(initial + 1);
+        assertThat(companyManagementService.getCompanyDetails(companyId).getVersion()).isEqualTo(initial + 1);
+    }
+
+    @Test
+    @DisplayName("Should reject updates based on a stale version")
+    void shouldRejectStaleIfMatch() throws Exception {
+        // Given
+        long stale = companyManagementService.getCompanyDetails(companyId).getVersion();
+        companyManagementService.patchCompany(companyId, objectMapper.readTree("{\"website\": \"https://a.example\"}"), Set.of(stale));
+
+        // When & Then
+        assertThatThrownBy(() -> companyManagementService.patchCompany(
+                companyId, objectMapper.readTree("{\"website\": \"https://b.example\"}"), Set.of(stale)))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.PRECONDITION_FAILED);
+        assertThat(companyManagementService.getCompanyDetails(companyId).getWebsite()).isEqualTo("https://a.example");
+    }
+
+    @Test
+    @DisplayName("Should bump the user version when only the functions change")
+    void shouldIncrementUserVersionOnFunctionChange() throws Exception {
+        // Given
+        long initial = userManagementService.getUserVersion(userId);
+
+        // When
+        UserDto updated = userManagementService.patchUser(
+                userId, objectMapper.readTree("{\"functions\": [\"CONSUMER\"]}"), Set.of(initial));
+
+        // Then
+        assertThat(updated.getFunctions()).isEqualTo(Set.of(UserFunction.CONSUMER));
+        assertThat(updated.getVersion()).isEqualTo(initial + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep the version when nothing changes")
+    void shouldKeepVersionForNoOpPatch() throws Exception {
+        // Given
+        long initial = userManagementService.getUserVersion(userId);
+
+        // When
+        UserDto updated = userManagementService.patchUser(userId, objectMapper.readTree("{\"firstName\": \"Ver\"}"), null);
+
+        // Then
+        assertThat(updated.getVersion()).isEqualTo(initial);
+    }
+}
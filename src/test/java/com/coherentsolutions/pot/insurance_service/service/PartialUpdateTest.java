@@ -0,0 +1,210 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.CompanyDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+import com.coherentsolutions.pot.insurance_service.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Patches companies and users and checks the UPDATE statements Hibernate issued, captured with a
+ * {@link StatementInspector}: only patched columns whose values changed, plus the audit timestamp
+ * and the version, may appear in the SET list.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("Partial Update Tests")
+class PartialUpdateTest extends PostgresTestContainer {
+
+    private static final Pattern UPDATE = Pattern.compile("update (\\w+) set (.+?) where ", Pattern.CASE_INSENSITIVE);
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private RecordingStatementInspector inspector;
+
+    @Autowired
+    private CompanyManagementService companyManagementService;
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID companyId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        companyId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO companies (id, name, country_code, website, address_data)
+                VALUES (?, 'Patch Co', 'USA', 'https://patch.example', '[{"country":"USA","city":"Austin"}]')
+                """, companyId);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                VALUES (?, 'Pat', 'Ch', ?, ?, DATE '1990-01-01', ?, ?)
+                """, userId, "patch_" + userId, "patch_" + userId + "@example.com",
+                "M" + userId.toString().substring(0, 9), companyId);
+        jdbcTemplate.update("INSERT INTO user_functions (id, function, user_id) VALUES (gen_random_uuid(), 'CONSUMER', ?)",
+                userId);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        inspector.statements.clear();
+    }
+
+    private long updates(Class<?> entity) {
+        return statistics.getEntityStatistics(entity.getName()).getUpdateCount();
+    }
+
+    /**
+     * Columns in the SET list of every UPDATE issued against {@code table}, one list per statement.
+     */
+    private List<List<String>> updatedColumns(String table) {
+        return inspector.statements.stream()
+                .map(UPDATE::matcher)
+                .filter(matcher -> matcher.find() && matcher.group(1).equalsIgnoreCase(table))
+                .map(matcher -> Arrays.stream(matcher.group(2).split(","))
+                        .map(assignment -> assignment.substring(0, assignment.indexOf('=')).trim().toLowerCase())
+                        .toList())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should change only patched company members")
+    void shouldPatchCompany() throws Exception {
+        // When
+        CompanyDto result = companyManagementService.patchCompany(companyId, objectMapper.readTree("""
+                {"name": "Patched Co", "website": null}
+                """), null);
+
+        // Then
+        assertThat(result.getName()).isEqualTo("Patched Co");
+        assertThat(result.getWebsite()).isNull();
+        assertThat(result.getAddressData()).singleElement().extracting("city").isEqualTo("Austin");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT address_data->0->>'city' FROM companies WHERE id = ?", String.class, companyId))
+                .isEqualTo("Austin");
+        assertThat(updates(Company.class)).isEqualTo(1);
+        assertThat(updatedColumns("companies")).singleElement().asInstanceOf(InstanceOfAssertFactories.LIST)
+                .containsExactlyInAnyOrder("name", "website", "updated_at", "version");
+    }
+
+    @Test
+    @DisplayName("Should not update a company when the patch repeats current values")
+    void shouldSkipUnchangedCompany() throws Exception {
+        // When
+        companyManagementService.patchCompany(companyId, objectMapper.readTree("""
+                {"name": "Patch Co", "addressData": [{"country": "USA", "city": "Austin"}]}
+                """), null);
+
+        // Then
+        assertThat(updates(Company.class)).isZero();
+        assertThat(updatedColumns("companies")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should patch user members and functions independently")
+    void shouldPatchUser() throws Exception {
+        // When
+        UserDto result = userManagementService.patchUser(userId, objectMapper.readTree("""
+                {"lastName": "Patched", "functions": ["CONSUMER", "COMPANY_MANAGER"]}
+                """), null);
+
+        // Then
+        assertThat(result.getFirstName()).isEqualTo("Pat");
+        assertThat(result.getLastName()).isEqualTo("Patched");
+        assertThat(result.getFunctions())
+                .containsExactlyInAnyOrder(UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM user_functions WHERE user_id = ?", Long.class, userId)).isEqualTo(2);
+        assertThat(updates(User.class)).isEqualTo(1);
+        assertThat(updatedColumns("users")).singleElement().asInstanceOf(InstanceOfAssertFactories.LIST)
+                .containsExactlyInAnyOrder("last_name", "updated_at", "version");
+    }
+
+    @Test
+    @DisplayName("Should reject blank and over-long patch values with 400")
+    void shouldRejectInvalidPatchValues() throws Exception {
+        // When / Then
+        assertThatThrownBy(() -> companyManagementService.patchCompany(companyId, objectMapper.readTree("""
+                {"countryCode": "USAX"}
+                """), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
+                .hasMessageContaining("countryCode");
+        assertThatThrownBy(() -> userManagementService.patchUser(userId, objectMapper.readTree("""
+                {"email": ""}
+                """), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
+                .hasMessageContaining("email: must not be blank");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT country_code FROM companies WHERE id = ?", String.class, companyId)).isEqualTo("USA");
+        assertThat(updates(Company.class)).isZero();
+        assertThat(updates(User.class)).isZero();
+        assertThat(updatedColumns("companies")).isEmpty();
+        assertThat(updatedColumns("users")).isEmpty();
+    }
+}
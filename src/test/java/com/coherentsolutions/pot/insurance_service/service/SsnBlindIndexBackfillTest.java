@@ -0,0 +1,86 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("SSN Blind Index Backfill Tests")
+class SsnBlindIndexBackfillTest extends PostgresTestContainer {
+
+    @Autowired
+    private SsnBlindIndexBackfill backfill;
+
+    @Autowired
+    private SsnBlindIndex ssnBlindIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID insertUnhashedUser(String username, String ssn) {
+        UUID companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Backfill Co', 'USA')", companyId);
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                VALUES (?, 'Back', 'Fill', ?, ? || '@example.com', DATE '1990-01-01', ?, ?)
+                """, id, username, username, ssn, companyId);
+        return id;
+    }
+
+    private String ssnHash(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT ssn_hash FROM users WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    @DisplayName("Should hash unique SSNs and leave SSNs with the same digits unhashed")
+    void shouldSkipCollidingSsns() {
+        // Given
+        UUID unique = insertUnhashedUser("backfill_unique", "BF1-11-1111");
+        UUID formatted = insertUnhashedUser("backfill_formatted", "822-22-2222");
+        UUID unformatted = insertUnhashedUser("backfill_plain", "822222222");
+
+        // When
+        backfill.run(null);
+
+        // Then
+        assertThat(ssnHash(unique)).isEqualTo(ssnBlindIndex.hash("BF1-11-1111"));
+        assertThat(ssnHash(formatted)).isNull();
+        assertThat(ssnHash(unformatted)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should leave the backfill to the node holding the lock")
+    void shouldSkipWhileAnotherNodeBackfills() {
+        // Given
+        UUID user = insertUnhashedUser("backfill_locked", "BF3-33-3333");
+
+        // When another session holds the backfill lock
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + 0x53534E48415348L + ")");
+                try {
+                    backfill.run(null);
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + 0x53534E48415348L + ")");
+                }
+            }
+            return null;
+        });
+
+        // Then
+        assertThat(ssnHash(user)).isNull();
+        backfill.run(null);
+        assertThat(ssnHash(user)).isEqualTo(ssnBlindIndex.hash("BF3-33-3333"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.user.BatchUserResult;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.enums.BatchItemStatus;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("User Batch Creation Tests")
+class UserBatchCreationTest extends PostgresTestContainer {
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID companyId;
+
+    @BeforeAll
+    void createCompany() {
+        companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Acme', 'USA')", companyId);
+    }
+
+    private UserDto user(String prefix, int n) {
+        return UserDto.builder()
+                .firstName("First" + n)
+                .lastName("Last" + n)
+                .username(prefix + n)
+                .email(prefix + n + "@example.com")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .ssn(String.format("8%08d", n))
+                .companyId(companyId)
+                .functions(Set.of(UserFunction.CONSUMER))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should create all valid users with their functions")
+    void shouldCreateAllValidUsers() {
+        // Given
+        List<UserDto> users = IntStream.rangeClosed(1, 1000).mapToObj(n -> user("batch_ok", n)).toList();
+
+        // When
+        List<BatchUserResult> results = userManagementService.createUsers(users);
+
+        // Then
+        assertThat(results).hasSize(1000).allSatisfy(result -> {
+            assertThat(result.getStatus()).isEqualTo(BatchItemStatus.CREATED);
+            assertThat(result.getId()).isNotNull();
+        });
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE username LIKE 'batch\\_ok%' AND ssn_hash IS NOT NULL", Integer.class))
+                .isEqualTo(1000);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM user_functions f JOIN users u ON u.id = f.user_id
+                WHERE u.username LIKE 'batch\\_ok%'
+                """, Integer.class)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Should record the current auditor like single user creation")
+    void shouldFillAuditColumns() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("batch-admin", null, List.of()));
+        UUID auditor = UUID.nameUUIDFromBytes("batch-admin".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        try {
+            userManagementService.createUsers(List.of(user("batch_audit", 7101)));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT created_by, updated_by FROM users WHERE username = 'batch_audit7101'");
+        assertThat(row).containsEntry("created_by", auditor).containsEntry("updated_by", auditor);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid items and still create the rest")
+    void shouldRejectInvalidItemsOnly() {
+        // Given
+        List<UserDto> users = new ArrayList<>();
+        users.add(user("batch_mixed", 5001));
+        UserDto missingName = user("batch_mixed", 5002);
+        missingName.setFirstName(" ");
+        users.add(missingName);
+        UserDto unknownCompany = user("batch_mixed", 5003);
+        unknownCompany.setCompanyId(UUID.randomUUID());
+        users.add(unknownCompany);
+        UserDto duplicate = user("batch_mixed", 5004);
+        duplicate.setUsername("batch_mixed5001");
+        users.add(duplicate);
+
+        // When
+        List<BatchUserResult> results = userManagementService.createUsers(users);
+
+        // Then
+        assertThat(results).extracting(BatchUserResult::getStatus).containsExactly(
+                BatchItemStatus.CREATED, BatchItemStatus.REJECTED, BatchItemStatus.REJECTED, BatchItemStatus.REJECTED);
+        assertThat(results.get(1).getErrors()).anyMatch(error -> error.startsWith("firstName"));
+        assertThat(results.get(2).getErrors()).containsExactly("companyId: company not found");
+        assertThat(results.get(3).getErrors()).containsExactly("username: duplicated in batch");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE email LIKE 'batch\\_mixed%'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject users that already exist")
+    void shouldRejectExistingUsers() {
+        // Given
+        userManagementService.createUsers(List.of(user("batch_existing", 7001)));
+
+        // When
+        List<BatchUserResult> results = userManagementService.createUsers(List.of(user("batch_existing", 7001)));
+
+        // Then
+        assertThat(results.get(0).getStatus()).isEqualTo(BatchItemStatus.REJECTED);
+        assertThat(results.get(0).getErrors())
+                .containsExactlyInAnyOrder("username: already exists", "email: already exists", "ssn: already exists");
+    }
+
+    @Test
+    @DisplayName("Should reject a single user whose SSN digits already exist with 409")
+    void shouldRejectDuplicateSsnWithConflict() {
+        // Given
+        userManagementService.createUsers(List.of(user("single_ssn", 7201)));
+        UserDto duplicate = user("single_ssn_other", 7201);
+        duplicate.setSsn("800-00-7201");
+
+        // When / Then
+        assertThatThrownBy(() -> userManagementService.createUser(duplicate))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT)
+                .hasMessageContaining("ssn: already exists");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE username LIKE 'single\\_ssn%'", Integer.class)).isEqualTo(1);
+    }
+}
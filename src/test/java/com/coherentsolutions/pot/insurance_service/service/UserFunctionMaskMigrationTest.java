@@ -0,0 +1,139 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.enums.FunctionMatch;
+import com.coherentsolutions.pot.insurance_service.enums.FunctionStorage;
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import com.coherentsolutions.pot.insurance_service.model.User;
+import com.coherentsolutions.pot.insurance_service.repository.UserRepository;
+import com.coherentsolutions.pot.insurance_service.repository.UserSpecification;
+import com.coherentsolutions.pot.insurance_service.util.SsnBlindIndex;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs with BITMASK storage against a table where some users still keep their functions in
+ * user_functions, as after switching storage and before the migration has reached every row.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "insurance.users.function-storage=BITMASK")
+@DisplayName("User Function Mask Migration Tests")
+class UserFunctionMaskMigrationTest extends PostgresTestContainer {
+
+    private static final AtomicInteger SSNS = new AtomicInteger();
+
+    @Autowired
+    private UserFunctionMaskMigration migration;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SsnBlindIndex ssnBlindIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID insertCompany() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Mask Co', 'USA')", id);
+        return id;
+    }
+
+    // Functions in user_functions and a NULL mask, as written with TABLE storage
+    private UUID insertTableUser(UUID companyId, String username, UserFunction... functions) {
+        UUID id = insertUser(companyId, username, null);
+        for (UserFunction function : functions) {
+            jdbcTemplate.update("INSERT INTO user_functions (id, function, user_id) VALUES (gen_random_uuid(), ?, ?)",
+                    function.name(), id);
+        }
+        return id;
+    }
+
+    private UUID insertMaskUser(UUID companyId, String username, UserFunction... functions) {
+        return insertUser(companyId, username, UserFunctionMask.toMask(List.of(functions)));
+    }
+
+    private UUID insertUser(UUID companyId, String username, Short mask) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id, function_mask)
+                VALUES (?, 'Mask', 'User', ?, ? || '@example.com', DATE '1990-01-01', ?, ?, ?)
+                """, id, username, username, String.format("MK0-00-%04d", SSNS.incrementAndGet()), companyId, mask);
+        return id;
+    }
+
+    private List<UUID> find(String emailPrefix, FunctionMatch match, UserFunction... functions) {
+        UserFilter filter = new UserFilter();
+        filter.setEmail(emailPrefix);
+        filter.setFunctions(Set.of(functions));
+        filter.setFunctionMatch(match);
+        return userRepository.findAll(UserSpecification.withFilters(filter, ssnBlindIndex, FunctionStorage.BITMASK))
+                .stream()
+                .map(User::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should match users by mask and users whose functions are still in user_functions")
+    void shouldFilterMixedStorage() {
+        // Given
+        UUID companyId = insertCompany();
+        UUID tableConsumer = insertTableUser(companyId, "mask_mixed_tc", UserFunction.CONSUMER);
+        UUID maskConsumer = insertMaskUser(companyId, "mask_mixed_mc", UserFunction.CONSUMER);
+        UUID tableBoth = insertTableUser(companyId, "mask_mixed_tb", UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER);
+        UUID maskBoth = insertMaskUser(companyId, "mask_mixed_mb", UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER);
+        UUID tableManager = insertTableUser(companyId, "mask_mixed_tm", UserFunction.COMPANY_MANAGER);
+        insertMaskUser(companyId, "mask_mixed_mn");
+
+        // When
+        List<UUID> anyConsumer = find("mask_mixed_", FunctionMatch.ANY, UserFunction.CONSUMER);
+        List<UUID> allBoth = find("mask_mixed_", FunctionMatch.ALL, UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER);
+
+        // Then
+        assertThat(anyConsumer).containsExactlyInAnyOrder(tableConsumer, maskConsumer, tableBoth, maskBoth);
+        assertThat(allBoth).containsExactlyInAnyOrder(tableBoth, maskBoth).doesNotContain(tableManager);
+    }
+
+    @Test
+    @DisplayName("Should move assignments into the mask and keep filter results")
+    void shouldMigrateAssignments() {
+        // Given
+        UUID companyId = insertCompany();
+        UUID consumer = insertTableUser(companyId, "mask_migrate_c", UserFunction.CONSUMER);
+        UUID both = insertTableUser(companyId, "mask_migrate_b", UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER);
+        UUID none = insertTableUser(companyId, "mask_migrate_n");
+        List<UUID> before = find("mask_migrate_", FunctionMatch.ANY, UserFunction.CONSUMER);
+
+        // When
+        migration.run(null);
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT function_mask FROM users WHERE id = ?", Short.class, consumer))
+                .isEqualTo(UserFunctionMask.toMask(EnumSet.of(UserFunction.CONSUMER)));
+        assertThat(jdbcTemplate.queryForObject("SELECT function_mask FROM users WHERE id = ?", Short.class, both))
+                .isEqualTo(UserFunctionMask.toMask(EnumSet.of(UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER)));
+        assertThat(jdbcTemplate.queryForObject("SELECT function_mask FROM users WHERE id = ?", Short.class, none))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM user_functions WHERE user_id IN (?, ?, ?)", Integer.class, consumer, both, none))
+                .isZero();
+        assertThat(find("mask_migrate_", FunctionMatch.ANY, UserFunction.CONSUMER))
+                .containsExactlyInAnyOrderElementsOf(before)
+                .containsExactlyInAnyOrder(consumer, both);
+    }
+}
@@ -0,0 +1,179 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserImportReport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("User Import Tests")
+class UserImportTest extends PostgresTestContainer {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID companyId;
+
+    @BeforeAll
+    void createCompany() {
+        companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Acme', 'USA')", companyId);
+    }
+
+    private static InputStream text(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should import valid CSV rows and report rejected ones")
+    void shouldImportCsvAndReportRejects() {
+        // Given
+        String csv = """
+                firstName,lastName,username,email,dateOfBirth,ssn,companyId,functions
+                Ann,Lee,csv_ann,csv_ann@example.com,1990-01-01,700-00-0001,%1$s,CONSUMER;COMPANY_MANAGER
+                "Bob, Jr",Ray,csv_bob,csv_bob@example.com,1991-02-03,700-00-0002,%1$s,
+                Cid,Poe,csv_cid,csv_cid@example.com,not-a-date,700-00-0003,%1$s,CONSUMER
+                Dan,Fox,csv_ann,csv_dan@example.com,1990-01-01,700-00-0004,%1$s,CONSUMER
+                Eve,Kim,csv_eve,csv_eve@example.com,1990-01-01,700-00-0005,%2$s,CONSUMER
+                Fay,Orr,csv_fay,csv_fay@example.com,1990-01-01,700-00-0006,%1$s,ASTRONAUT
+                """.formatted(companyId, UUID.randomUUID());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("import-admin", null, List.of()));
+        UUID auditor = UUID.nameUUIDFromBytes("import-admin".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        UserImportReport report;
+        try {
+            report = userImportService.importUsers(text(csv), UserImportService.TEXT_CSV);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // Then
+        assertThat(report.getReceived()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(4);
+        assertThat(report.getRejects()).extracting(UserImportReport.Reject::getRow, UserImportReport.Reject::getError)
+                .containsExactly(
+                        tuple(3L, "dateOfBirth: must be a date (yyyy-mm-dd)"),
+                        tuple(4L, "username: duplicated in file"),
+                        tuple(5L, "companyId: company not found"),
+                        tuple(6L, "functions: unknown function"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT first_name FROM users WHERE username = 'csv_bob'", String.class)).isEqualTo("Bob, Jr");
+        assertThat(jdbcTemplate.queryForMap("SELECT created_by, updated_by FROM users WHERE username = 'csv_bob'"))
+                .containsEntry("created_by", auditor).containsEntry("updated_by", auditor);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM user_functions f JOIN users u ON u.id = f.user_id WHERE u.username = 'csv_ann'
+                """, Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON and reject users that already exist")
+    void shouldImportNdjsonAndRejectExisting() {
+        // Given
+        String row = """
+                {"firstName":"Nia","lastName":"Day","username":"nd_nia","email":"nd_nia@example.com",\
+                "dateOfBirth":"1985-05-05","ssn":"700-00-0101","companyId":"%s","functions":["CONSUMER"]}
+                """.formatted(companyId);
+        userImportService.importUsers(text(row), NDJSON);
+
+        // When
+        UserImportReport report = userImportService.importUsers(text(row), NDJSON);
+
+        // Then
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getRejects()).extracting(UserImportReport.Reject::getError)
+                .containsExactly("username: already exists");
+    }
+
+    @Test
+    @DisplayName("Should reject SSNs without digits and assign repeated functions once")
+    void shouldRejectSsnWithoutDigitsAndDeduplicateFunctions() {
+        // Given
+        String csv = """
+                firstName,lastName,username,email,dateOfBirth,ssn,companyId,functions
+                Gus,Ash,csv_gus,csv_gus@example.com,1990-01-01,700-00-0201,%1$s,CONSUMER;CONSUMER
+                Hal,Ito,csv_hal,csv_hal@example.com,1990-01-01,---,%1$s,CONSUMER
+                """.formatted(companyId);
+
+        // When
+        UserImportReport report = userImportService.importUsers(text(csv), UserImportService.TEXT_CSV);
+
+        // Then
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getRejects()).extracting(UserImportReport.Reject::getRow, UserImportReport.Reject::getError)
+                .containsExactly(tuple(2L, "ssn: must contain digits"));
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM user_functions f JOIN users u ON u.id = f.user_id WHERE u.username = 'csv_gus'
+                """, Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject syntactically malformed bodies as a whole")
+    void shouldRejectMalformedBody() {
+        assertThatThrownBy(() -> userImportService.importUsers(text("{\"firstName\": \n"), NDJSON))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("Should stream a generated NDJSON body into users")
+    void shouldStreamGeneratedBody() {
+        // Given a body generated on the fly, spanning several COPY buffers
+        int rows = 2_000;
+        Enumeration<InputStream> lines = new Enumeration<>() {
+            private int next = 1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next <= rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                int n = next++;
+                return text("""
+                        {"firstName":"Bulk","lastName":"User%1$d","username":"bulk%1$d","email":"bulk%1$d@example.com",\
+                        "dateOfBirth":"1990-01-01","ssn":"6%2$08d","companyId":"%3$s","functions":["CONSUMER"]}
+                        """.formatted(n, n, companyId));
+            }
+        };
+
+        // When
+        UserImportReport report = userImportService.importUsers(new SequenceInputStream(lines), NDJSON);
+
+        // Then
+        assertThat(report.getImported()).isEqualTo(rows);
+        assertThat(report.getRejects()).isEmpty();
+    }
+}
@@ -0,0 +1,99 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("User List Statement Count Tests")
+class UserListStatementCountTest extends PostgresTestContainer {
+
+    private static final int USERS = 200;
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private long baselineStatements;
+
+    @BeforeAll
+    void loadUsers() {
+        UUID companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Acme', 'USA')", companyId);
+        jdbcTemplate.update("""
+                INSERT INTO users (first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                SELECT 'First' || g, 'Last' || g, 'count_user' || g, 'count_user' || g || '@example.com',
+                       DATE '1990-01-01', lpad(g::text, 9, '0'), ?
+                FROM generate_series(1, ?) g
+                """, companyId, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO user_functions (id, function, user_id)
+                SELECT gen_random_uuid(), f.function, u.id
+                FROM users u CROSS JOIN (VALUES ('CONSUMER'), ('COMPANY_MANAGER')) AS f(function)
+                """);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Statements for the smallest page are the baseline every larger page must match
+        baselineStatements = statementsFor(1);
+    }
+
+    private long statementsFor(int pageSize) {
+        statistics.clear();
+        Page<UserDto> page = userManagementService.getUsersWithFilters(
+                new UserFilter(), PageRequest.of(0, pageSize, Sort.by("username")));
+
+        assertThat(page.getContent()).hasSize(pageSize);
+        assertThat(page.getContent()).allSatisfy(user -> assertThat(user.getFunctions()).hasSize(2));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 50, 100, 200})
+    @DisplayName("Should issue the same number of statements regardless of page size")
+    void shouldIssueConstantStatementsPerPage(int pageSize) {
+        assertThat(statementsFor(pageSize)).isEqualTo(baselineStatements);
+    }
+
+    @Test
+    @DisplayName("Should list users without loading their companies")
+    void shouldNotLoadCompanies() {
+        // When
+        statistics.clear();
+        Page<UserDto> page = userManagementService.getUsersWithFilters(
+                new UserFilter(), PageRequest.of(0, 50, Sort.by("username")));
+
+        // Then
+        assertThat(page.getContent()).allSatisfy(user -> assertThat(user.getCompanyId()).isNotNull());
+        assertThat(statistics.getEntityStatistics(Company.class.getName()).getLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,111 @@
+package com.coherentsolutions.pot.insurance_service.service;
+
+import com.coherentsolutions.pot.insurance_service.containers.PostgresTestContainer;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link UserManagementService#searchUsers} against the generated {@code search_vector}
+ * column. Every test searches for its own random word, so rows left by other tests never match.
+ */
+@SpringBootTest
+@DisplayName("User Search Tests")
+class UserSearchTest extends PostgresTestContainer {
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String word;
+    private UUID companyId;
+
+    @BeforeEach
+    void setUp() {
+        word = randomWord();
+        companyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO companies (id, name, country_code) VALUES (?, 'Search Co', 'USA')", companyId);
+    }
+
+    private static String randomWord() {
+        StringBuilder word = new StringBuilder("w");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 11; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private UUID insertUser(String firstName, String lastName, String username, String email) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, username, email, date_of_birth, ssn, company_id)
+                VALUES (?, ?, ?, ?, ?, DATE '1990-01-01', ?, ?)
+                """, id, firstName, lastName, username, email, "S" + id.toString().substring(0, 9), companyId);
+        return id;
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above username and email matches")
+    void shouldRankByWeight() {
+        // Given
+        UUID emailMatch = insertUser("Erin", "Mail", "mail_" + UUID.randomUUID(), "e." + word + "@example.com");
+        UUID nameMatch = insertUser(Character.toUpperCase(word.charAt(0)) + word.substring(1), "Name",
+                "name_" + UUID.randomUUID(), "name_" + UUID.randomUUID() + "@example.com");
+        UUID usernameMatch = insertUser("Uma", "User", word + "_login", "user_" + UUID.randomUUID() + "@example.com");
+
+        // When
+        var results = userManagementService.searchUsers(word, 10);
+
+        // Then
+        assertThat(results).extracting(UserDto::getId).containsExactly(nameMatch, usernameMatch, emailMatch);
+    }
+
+    @Test
+    @DisplayName("Should match every word of the query as a prefix")
+    void shouldMatchPrefixes() {
+        // Given
+        UUID smith = insertUser(word, "Smithson", "smith_" + UUID.randomUUID(), "smith_" + UUID.randomUUID() + "@example.com");
+        UUID jones = insertUser(word, "Jones", "jones_" + UUID.randomUUID(), "jones_" + UUID.randomUUID() + "@example.com");
+
+        // When
+        var byPrefix = userManagementService.searchUsers(word.substring(0, 6), 10);
+        var byTwoPrefixes = userManagementService.searchUsers(word.substring(0, 6) + " smi", 10);
+
+        // Then
+        assertThat(byPrefix).extracting(UserDto::getId).containsExactlyInAnyOrder(smith, jones);
+        assertThat(byTwoPrefixes).extracting(UserDto::getId).containsExactly(smith);
+    }
+
+    @Test
+    @DisplayName("Should keep the search vector in sync after an update")
+    void shouldReflectUpdates() throws Exception {
+        // Given
+        UUID userId = insertUser(word, "Before", "sync_" + UUID.randomUUID(), "sync_" + UUID.randomUUID() + "@example.com");
+        jdbcTemplate.update("INSERT INTO user_functions (id, function, user_id) VALUES (gen_random_uuid(), 'CONSUMER', ?)",
+                userId);
+        String renamed = randomWord();
+
+        // When
+        userManagementService.patchUser(userId, objectMapper.readTree("{\"firstName\": \"" + renamed + "\"}"), null);
+
+        // Then
+        assertThat(userManagementService.searchUsers(renamed, 10)).extracting(UserDto::getId).containsExactly(userId);
+        assertThat(userManagementService.searchUsers(word, 10)).isEmpty();
+    }
+}
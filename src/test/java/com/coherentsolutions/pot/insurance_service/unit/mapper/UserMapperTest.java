@@ -1,14 +1,18 @@
 package com.coherentsolutions.pot.insurance_service.unit.mapper;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
 import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
@@ -63,9 +67,7 @@ class UserMapperTest {
         user.setDateOfBirth(LocalDate.of(1990, 1, 1));
         user.setSsn("123-45-6789");
 
-        Company company = new Company();
-        company.setId(companyId);
-        user.setCompany(company);
+        user.setCompanyId(companyId);
 
         // When
         UserDto dto = userMapper.toDto(user);
@@ -77,7 +79,26 @@ class UserMapperTest {
         assertEquals(user.getEmail(), dto.getEmail());
         assertEquals(user.getDateOfBirth(), dto.getDateOfBirth());
         assertEquals(user.getSsn(), dto.getSsn());
-        assertEquals(user.getCompany().getId(), dto.getCompanyId());
+        assertEquals(companyId, dto.getCompanyId());
+        assertNull(dto.getCompany());
+    }
+
+    @Test
+    @DisplayName("Should read company id without touching the company association")
+    void shouldReadCompanyIdWithoutTouchingCompany() {
+        // Given
+        UUID companyId = UUID.randomUUID();
+        User user = new User();
+        user.setCompanyId(companyId);
+        Company company = mock(Company.class);
+        user.setCompany(company);
+
+        // When
+        UserDto dto = userMapper.toDto(user);
+
+        // Then
+        assertEquals(companyId, dto.getCompanyId());
+        verifyNoInteractions(company);
     }
 
     @Test
@@ -109,4 +130,18 @@ class UserMapperTest {
         assertEquals(dto.getCompanyId(), user.getCompany().getId());
     }
 
+    @Test
+    @DisplayName("Should read functions from the bitmask when present")
+    void shouldReadFunctionsFromBitmask() {
+        // Given
+        User user = new User();
+        user.setFunctionMask(EnumSet.of(UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER));
+
+        // When
+        UserDto dto = userMapper.toDto(user);
+
+        // Then
+        assertEquals(Set.of(UserFunction.CONSUMER, UserFunction.COMPANY_MANAGER), dto.getFunctions());
+    }
+
 }
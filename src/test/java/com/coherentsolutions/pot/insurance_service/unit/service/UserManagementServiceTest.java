@@ -5,6 +5,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,11 +14,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.coherentsolutions.pot.insurance_service.cache.CacheInvalidationBus;
+import com.coherentsolutions.pot.insurance_service.dto.page.CursorPage;
 import com.coherentsolutions.pot.insurance_service.dto.user.UserDto;
+import com.coherentsolutions.pot.insurance_service.dto.user.UserFilter;
+import com.coherentsolutions.pot.insurance_service.enums.FunctionStorage;
 import com.coherentsolutions.pot.insurance_service.enums.UserStatus;
 import com.coherentsolutions.pot.insurance_service.mapper.UserMapper;
 import com.coherentsolutions.pot.insurance_service.model.Address;
@@ -25,6 +34,7 @@ import com.coherentsolutions.pot.insurance_service.model.Phone;
 import com.coherentsolutions.pot.insurance_service.model.User;
 import com.coherentsolutions.pot.insurance_service.repository.UserRepository;
 import com.coherentsolutions.pot.insurance_service.service.UserManagementService;
+import com.coherentsolutions.pot.insurance_service.util.UserFunctionMask;
 
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
 class UserManagementServiceTest {
@@ -35,6 +45,12 @@ class UserManagementServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Spy
+    private UserFunctionMask userFunctionMask = new UserFunctionMask(FunctionStorage.TABLE);
+
     @InjectMocks
     private UserManagementService userManagementService;
 
@@ -117,4 +133,24 @@ class UserManagementServiceTest {
                 ResponseStatusException.class,
                 () -> userManagementService.updateUser(userId, new UserDto()));
     }
+
+    @Test
+    @DisplayName("Should return cursor page of users")
+    void shouldReturnCursorPageOfUsers() {
+        // Given
+        UserDto userDto = new UserDto();
+        userDto.setId(userId);
+
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(List.of(user));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        // When
+        CursorPage<UserDto> result = userManagementService.getUsersByCursor(
+                new UserFilter(), null, null, PageRequest.of(0, 10, Sort.by("lastName")));
+
+        // Then
+        assertEquals(List.of(userDto), result.getContent());
+        assertFalse(result.isHasNext());
+        assertFalse(result.isHasPrevious());
+    }
 }
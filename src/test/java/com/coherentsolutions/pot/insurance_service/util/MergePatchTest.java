@@ -0,0 +1,126 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import com.coherentsolutions.pot.insurance_service.model.Address;
+import com.coherentsolutions.pot.insurance_service.model.Company;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Merge Patch Tests")
+class MergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        company = new Company();
+        company.setName("Acme");
+        company.setWebsite("https://acme.example");
+        company.setAddressData(List.of(new Address("USA", "Austin", "TX", "Main St", "1", null)));
+    }
+
+    private boolean apply(String json) throws Exception {
+        JsonNode patch = objectMapper.readTree(json);
+        return MergePatch.of(patch, objectMapper)
+                .validatedAgainst(Company.class, validator)
+                .required("name", String.class, company::setName)
+                .optional("website", String.class, company::setWebsite)
+                .optional("addressData", new TypeReference<List<Address>>() {
+                }, company::setAddressData)
+                .apply();
+    }
+
+    @Test
+    @DisplayName("Should replace present members, clear nulls and keep absent ones")
+    void shouldApplyMergePatchSemantics() throws Exception {
+        // When
+        boolean patched = apply("""
+                {"name": "Acme Corp", "website": null}
+                """);
+
+        // Then
+        assertThat(patched).isTrue();
+        assertThat(company.getName()).isEqualTo("Acme Corp");
+        assertThat(company.getWebsite()).isNull();
+        assertThat(company.getAddressData()).extracting(Address::getCity).containsExactly("Austin");
+    }
+
+    @Test
+    @DisplayName("Should replace arrays as a whole")
+    void shouldReplaceArrays() throws Exception {
+        // When
+        apply("""
+                {"addressData": [{"country": "CAN", "city": "Toronto"}]}
+                """);
+
+        // Then
+        assertThat(company.getAddressData()).containsExactly(new Address("CAN", "Toronto", null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Should report an empty patch")
+    void shouldReportEmptyPatch() throws Exception {
+        assertThat(apply("{}")).isFalse();
+        assertThat(company.getName()).isEqualTo("Acme");
+    }
+
+    @Test
+    @DisplayName("Should reject removing a required member without applying anything")
+    void shouldRejectNullRequiredMember() {
+        assertThatThrownBy(() -> apply("""
+                {"website": "https://new.example", "name": null}
+                """))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
+                .hasMessageContaining("name cannot be removed");
+        assertThat(company.getWebsite()).isEqualTo("https://acme.example");
+    }
+
+    @Test
+    @DisplayName("Should reject values breaking the entity constraints without applying anything")
+    void shouldRejectInvalidValues() {
+        assertThatThrownBy(() -> apply("""
+                {"name": "  ", "website": "%s"}
+                """.formatted("w".repeat(256))))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
+                .hasMessageContaining("name: must not be blank")
+                .hasMessageContaining("website: size must be between 0 and 255");
+        assertThat(company.getName()).isEqualTo("Acme");
+        assertThat(company.getWebsite()).isEqualTo("https://acme.example");
+    }
+
+    @Test
+    @DisplayName("Should reject members that cannot be patched")
+    void shouldRejectUnsupportedMembers() {
+        assertThatThrownBy(() -> apply("""
+                {"id": "5f0c7c2e-8a4e-4d0c-9a53-0a8c0f6d1b11", "createdAt": null}
+                """))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Unsupported patch members: id, createdAt");
+    }
+
+    @Test
+    @DisplayName("Should reject a patch that is not an object")
+    void shouldRejectNonObjectPatch() throws Exception {
+        JsonNode patch = objectMapper.readTree("[]");
+
+        assertThatThrownBy(() -> MergePatch.of(patch, objectMapper))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,48 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SSN Blind Index Tests")
+class SsnBlindIndexTest {
+
+    private final SsnBlindIndex ssnBlindIndex = new SsnBlindIndex("test-key");
+
+    @Test
+    @DisplayName("Should hash formatted and unformatted SSN to the same value")
+    void shouldIgnoreFormatting() {
+        assertThat(ssnBlindIndex.hash("123-45-6789")).isEqualTo(ssnBlindIndex.hash("123456789"));
+    }
+
+    @Test
+    @DisplayName("Should produce hex HMAC that does not contain the SSN")
+    void shouldProduceOpaqueHex() {
+        String hash = ssnBlindIndex.hash("123-45-6789");
+
+        assertThat(hash).hasSize(64).matches("[0-9a-f]+").doesNotContain("123456789");
+    }
+
+    @Test
+    @DisplayName("Should depend on the key")
+    void shouldDependOnKey() {
+        assertThat(new SsnBlindIndex("other-key").hash("123-45-6789"))
+                .isNotEqualTo(ssnBlindIndex.hash("123-45-6789"));
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without a key")
+    void shouldRequireKey() {
+        assertThatThrownBy(() -> new SsnBlindIndex(" "))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SSN_HMAC_KEY");
+    }
+
+    @Test
+    @DisplayName("Should extract last four digits")
+    void shouldExtractLastFourDigits() {
+        assertThat(SsnBlindIndex.lastFour("123-45-6789")).isEqualTo("6789");
+    }
+}
@@ -0,0 +1,37 @@
+package com.coherentsolutions.pot.insurance_service.util;
+
+import com.coherentsolutions.pot.insurance_service.enums.UserFunction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("User Function Mask Tests")
+class UserFunctionMaskTest {
+
+    @Test
+    @DisplayName("Should assign one bit per function ordinal")
+    void shouldAssignBitPerOrdinal() {
+        assertThat(UserFunctionMask.toMask(Set.of(UserFunction.COMPANY_MANAGER))).isEqualTo((short) 1);
+        assertThat(UserFunctionMask.toMask(Set.of(UserFunction.CONSUMER))).isEqualTo((short) 16);
+        assertThat(UserFunctionMask.toMask(Set.of())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should round-trip every function combination")
+    void shouldRoundTripAllFunctions() {
+        EnumSet<UserFunction> all = EnumSet.allOf(UserFunction.class);
+
+        assertThat(UserFunctionMask.fromMask(UserFunctionMask.toMask(all))).isEqualTo(all);
+        assertThat(UserFunctionMask.fromMask((short) 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fit all functions into a smallint")
+    void shouldFitIntoSmallint() {
+        assertThat(UserFunction.values().length).isLessThanOrEqualTo(15);
+    }
+}